@@ -0,0 +1,123 @@
+package com.example.spotify_kp;
+
+import android.app.Application;
+import android.os.StrictMode;
+import android.os.strictmode.Violation;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.spotify_kp.data.repository.AlbumRepository;
+import com.example.spotify_kp.data.repository.FacetRepository;
+import com.example.spotify_kp.ui.catalog.CatalogViewModel;
+import com.example.spotify_kp.ui.main.SharedViewModel;
+import com.example.spotify_kp.ui.newreleases.NewReleasesViewModel;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Точки входа репозиториев и ViewModel, которые UI вызывает с главного потока,
+ * не должны трогать БД на этом потоке.
+ *
+ * Вызовы идут на главном looper под StrictMode (диск) с penaltyListener:
+ * любое нарушение со стеком из SQLite / Room, как и исключение Room
+ * "Cannot access database on the main thread", валит тест.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MainThreadDatabaseAccessTest {
+    private static final String TAG = "MainThreadDbTest";
+    private static final String MISSING_ALBUM_ID = "main-thread-test-album";
+
+    private final Application application = (Application) InstrumentationRegistry
+            .getInstrumentation().getTargetContext().getApplicationContext();
+
+    @Test
+    public void entryPointsDoNotQueryOnMainThread() {
+        List<String> failures = new ArrayList<>();
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            StrictMode.ThreadPolicy previous = StrictMode.getThreadPolicy();
+            StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .penaltyListener(Runnable::run, violation -> {
+                        if (isDatabaseAccess(violation)) {
+                            failures.add("StrictMode: " + stackOf(violation));
+                        }
+                    })
+                    .build());
+            try {
+                AppContainer container = AppContainer.from(application);
+                AlbumRepository albums = container.getAlbumRepository();
+
+                call(failures, "AlbumRepository.loadAlbums", () -> observeOnce(albums.loadAlbums()));
+                call(failures, "AlbumRepository.getAlbumDetailsFromDb",
+                        () -> observeOnce(albums.getAlbumDetailsFromDb(MISSING_ALBUM_ID)));
+                call(failures, "AlbumRepository.getLastSyncTime", albums::getLastSyncTime);
+                call(failures, "TrackRepository.getTracksForAlbum", () -> observeOnce(
+                        container.getTrackRepository().getTracksForAlbum(MISSING_ALBUM_ID)));
+                call(failures, "NewReleasesRepository.loadNewReleases", () -> observeOnce(
+                        container.getNewReleasesRepository().loadNewReleases(10, 0)));
+                call(failures, "FacetRepository.getFacets",
+                        () -> observeOnce(FacetRepository.getInstance(application).getFacets()));
+
+                call(failures, "SharedViewModel", () -> {
+                    SharedViewModel viewModel = new SharedViewModel(application);
+                    observeOnce(viewModel.getFavorites());
+                    observeOnce(viewModel.getFavoriteItems());
+                    observeOnce(viewModel.isAlbumFavorite(MISSING_ALBUM_ID));
+                });
+                call(failures, "CatalogViewModel", () -> new CatalogViewModel(application));
+                call(failures, "NewReleasesViewModel", () -> new NewReleasesViewModel(application));
+            } finally {
+                StrictMode.setThreadPolicy(previous);
+            }
+        });
+
+        for (String failure : failures) {
+            Log.e(TAG, "❌ " + failure);
+        }
+        assertTrue("Database access on the main thread:\n" + String.join("\n", failures),
+                failures.isEmpty());
+    }
+
+    private static void call(List<String> failures, String name, Runnable entryPoint) {
+        try {
+            entryPoint.run();
+        } catch (RuntimeException e) {
+            failures.add(name + ": " + stackOf(e));
+        }
+    }
+
+    /**
+     * Подписка и отписка: Room LiveData и onActive-пересчёты стартуют только при наблюдателе
+     */
+    private static <T> void observeOnce(LiveData<T> liveData) {
+        Observer<T> observer = value -> { };
+        liveData.observeForever(observer);
+        liveData.removeObserver(observer);
+    }
+
+    private static boolean isDatabaseAccess(Violation violation) {
+        String stack = stackOf(violation);
+        return stack.contains("android.database.sqlite") || stack.contains("androidx.room")
+                || stack.contains("androidx.sqlite");
+    }
+
+    private static String stackOf(Throwable throwable) {
+        StringWriter writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.spotify_kp.data.local;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.model.AlbumListItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Список каталога на ROWS строк: полные AlbumEntity (SELECT *) против
+ * карточек AlbumListItem (только колонки сетки).
+ *
+ * Время - запрос + разбор курсора в объекты; память - прирост Java-кучи,
+ * пока результат жив (после GC до и после). p50 / p95 в logcat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AlbumProjectionBenchmark {
+    private static final String TAG = "AlbumProjectionBench";
+    private static final int ITERATIONS = 20;
+    private static final int ROWS = 10_000;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private AppDatabase database;
+
+    @Before
+    public void setUp() {
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        List<AlbumEntity> albums = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            albums.add(album(i));
+        }
+        database.albumDao().insertAll(albums);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void cursorToObjects() {
+        measure("AlbumEntity", () -> database.albumDao().getAllAlbumsSync());
+        measure("AlbumListItem", () -> database.albumDao().getAllAlbumListItemsSync());
+    }
+
+    private static void measure(String mode, Supplier<List<?>> query) {
+        List<Long> samplesUs = new ArrayList<>(ITERATIONS);
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            List<?> rows = query.get();
+            samplesUs.add((System.nanoTime() - start) / 1000);
+            assertEquals(ROWS, rows.size());
+        }
+
+        long before = usedHeap();
+        List<?> retained = query.get();
+        long heapBytes = usedHeap() - before;
+        assertEquals(ROWS, retained.size());
+
+        Collections.sort(samplesUs);
+        Log.d(TAG, "⏱️ " + ROWS + " rows, " + mode + ": p50 "
+                + samplesUs.get(samplesUs.size() / 2) + " µs, p95 "
+                + samplesUs.get((int) Math.ceil(samplesUs.size() * 0.95) - 1) + " µs, heap "
+                + heapBytes / 1024 + " KB (" + heapBytes / ROWS + " B/row)");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            runtime.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static AlbumEntity album(int i) {
+        AlbumEntity album = new AlbumEntity();
+        album.setId("bench-" + i);
+        album.setTitle("Album title number " + i);
+        album.setArtist("Artist " + (i % 500));
+        album.setYear(1970 + i % 55);
+        album.setGenre(i % 2 == 0 ? "Rock" : "Electronic");
+        album.setCoverUrl("https://i.scdn.co/image/ab67616d0000b273" + i);
+        album.setTotalTracks(12);
+        album.setReleaseDay(3650L + i);
+        album.setReleaseDatePrecision(0);
+        album.setSpotifyId("spotify-" + i);
+        album.setCreatedAt(1_700_000_000_000L + i);
+        return album;
+    }
+}
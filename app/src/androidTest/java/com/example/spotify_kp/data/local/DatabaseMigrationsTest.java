@@ -0,0 +1,179 @@
+package com.example.spotify_kp.data.local;
+
+import android.database.Cursor;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.spotify_kp.utils.Constants;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Миграции с каждой старой версии до текущей на заполненной БД.
+ *
+ * Схемы старых версий берутся из app/schemas. Версии 1-4 восстановлены
+ * вручную и с настоящими установленными БД не сверялись (см. app/schemas/README.md).
+ * Объём - как у кеша после
+ * нескольких синхронизаций: ALBUMS альбомов, по TRACKS_PER_ALBUM треков
+ * у каждого, избранное у каждого FAVORITE_EVERY-го. Проверяется, что данные
+ * пережили миграцию и что она уложилась в MIGRATION_BUDGET_MS.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseMigrationsTest {
+    private static final String TAG = "DatabaseMigrationsTest";
+    private static final String TEST_DB = "migration-test";
+
+    private static final int ALBUMS = 2000;
+    private static final int TRACKS_PER_ALBUM = 12;
+    private static final int FAVORITE_EVERY = 10;
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(), AppDatabase.class);
+
+    @Test
+    public void migrate1ToLatest() throws IOException {
+        migrateToLatest(1);
+    }
+
+    @Test
+    public void migrate2ToLatest() throws IOException {
+        migrateToLatest(2);
+    }
+
+    @Test
+    public void migrate3ToLatest() throws IOException {
+        migrateToLatest(3);
+    }
+
+    @Test
+    public void migrate4ToLatest() throws IOException {
+        migrateToLatest(4);
+    }
+
+    /**
+     * До версии 5 второй диск затирал треки первого: такие альбомы теряют
+     * кешированные треки (загрузятся заново), целые - сохраняют
+     */
+    @Test
+    public void migrate4To5DropsOverwrittenTracks() throws IOException {
+        try (SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 4)) {
+            insertAlbum(db, 4, "complete", 2);
+            insertAlbum(db, 4, "two-discs", 4);
+            for (int number = 1; number <= 2; number++) {
+                insertTrack(db, "complete", number);
+                insertTrack(db, "two-discs", number);
+            }
+        }
+
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(
+                TEST_DB, 5, true, DatabaseMigrations.MIGRATION_4_5);
+
+        assertEquals(2, count(db, "SELECT COUNT(*) FROM tracks "
+                + "WHERE album_id = 'complete' AND disc_number = 1"));
+        assertEquals(0, count(db, "SELECT COUNT(*) FROM tracks WHERE album_id = 'two-discs'"));
+        db.close();
+    }
+
+    private void migrateToLatest(int fromVersion) throws IOException {
+        try (SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, fromVersion)) {
+            seed(db, fromVersion);
+        }
+
+        long start = SystemClock.elapsedRealtime();
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(
+                TEST_DB, Constants.DATABASE_VERSION, true, DatabaseMigrations.ALL);
+        long elapsed = SystemClock.elapsedRealtime() - start;
+        Log.d(TAG, "⏱️ " + fromVersion + " → " + Constants.DATABASE_VERSION + ": "
+                + elapsed + " ms");
+
+        assertEquals(ALBUMS, count(db, "SELECT COUNT(*) FROM albums"));
+        assertEquals(ALBUMS / FAVORITE_EVERY, count(db, "SELECT COUNT(*) FROM favorites"));
+        if (fromVersion >= 2) {
+            assertEquals(ALBUMS * TRACKS_PER_ALBUM, count(db, "SELECT COUNT(*) FROM tracks"));
+        }
+        if (fromVersion < 4) {
+            // Строковые год и дата → числа, "Unknown" → NULL
+            assertEquals(2011, count(db, "SELECT year FROM albums WHERE id = 'album-0'"));
+            assertEquals(LocalDate.of(2011, 5, 13).toEpochDay(),
+                    count(db, "SELECT release_day FROM albums WHERE id = 'album-0'"));
+            assertEquals(0, count(db, "SELECT COUNT(*) FROM albums "
+                    + "WHERE id = 'album-1' AND year IS NOT NULL"));
+        }
+        db.close();
+
+        assertTrue(fromVersion + " → " + Constants.DATABASE_VERSION + " took " + elapsed
+                        + " ms (budget " + DatabaseMigrations.MIGRATION_BUDGET_MS + " ms)",
+                elapsed <= DatabaseMigrations.MIGRATION_BUDGET_MS);
+    }
+
+    private static void seed(SupportSQLiteDatabase db, int version) {
+        db.beginTransaction();
+        try {
+            for (int i = 0; i < ALBUMS; i++) {
+                String id = "album-" + i;
+                insertAlbum(db, version, id, TRACKS_PER_ALBUM);
+                if (version >= 2) {
+                    for (int number = 1; number <= TRACKS_PER_ALBUM; number++) {
+                        insertTrack(db, id, number);
+                    }
+                }
+                if (i % FAVORITE_EVERY == 0) {
+                    db.execSQL("INSERT INTO favorites (album_id, user_id, user_comment, "
+                                    + "user_rating, added_date, is_favorite) VALUES (?, ?, ?, ?, ?, ?)",
+                            new Object[]{id, "user-1", "comment " + i, 4.5f, 1_700_000_000_000L + i, 1});
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static void insertAlbum(SupportSQLiteDatabase db, int version, String id, int totalTracks) {
+        // album-1 - альбом без даты, как у части ответов API
+        boolean unknown = id.equals("album-1");
+        if (version < 4) {
+            db.execSQL("INSERT INTO albums (id, title, artist, year, genre, cover_url, "
+                            + "total_tracks, release_date, spotify_id, created_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    new Object[]{id, "Title " + id, "Artist", unknown ? "Unknown" : "2011",
+                            "Electronic", "https://i.scdn.co/image/" + id, totalTracks,
+                            unknown ? null : "2011-05-13", id, System.currentTimeMillis()});
+        } else {
+            db.execSQL("INSERT INTO albums (id, title, artist, year, genre, cover_url, "
+                            + "total_tracks, release_day, release_date_precision, spotify_id, "
+                            + "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    new Object[]{id, "Title " + id, "Artist", unknown ? null : 2011,
+                            "Electronic", "https://i.scdn.co/image/" + id, totalTracks,
+                            unknown ? null : LocalDate.of(2011, 5, 13).toEpochDay(),
+                            unknown ? null : 0, id, System.currentTimeMillis()});
+        }
+    }
+
+    private static void insertTrack(SupportSQLiteDatabase db, String albumId, int number) {
+        db.execSQL("INSERT INTO tracks (album_id, track_number, track_id, name, duration_ms) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                new Object[]{albumId, number, albumId + "-" + number, "Track " + number, 180_000});
+    }
+
+    private static long count(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.spotify_kp.data.local;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Холодное первое чтение сессии: KeyValueStore против SharedPreferences.
+ *
+ * Каждая итерация читает свою копию одного и того же файла, поэтому ни
+ * кеш SharedPreferences в ContextImpl, ни наш экземпляр не переиспользуются.
+ * Время - от создания/получения хранилища до первого значения.
+ */
+@RunWith(AndroidJUnit4.class)
+public class KeyValueStoreBenchmark {
+    private static final String TAG = "KeyValueStoreBenchmark";
+    private static final int ITERATIONS = 30;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    @Test
+    public void coldFirstRead() throws Exception {
+        // Те же шесть ключей, что пишет SharedPrefsManager.saveLoginData
+        SharedPreferences source = context.getSharedPreferences("kv_bench_src", Context.MODE_PRIVATE);
+        source.edit()
+                .putBoolean("isLoggedIn", true)
+                .putString("userId", "user-123")
+                .putString("userName", "Bench User")
+                .putString("userEmail", "bench@example.com")
+                .putString("authToken", "token-0123456789abcdef")
+                .putString("userImage", "https://i.scdn.co/image/bench")
+                .commit();
+        File prefsDir = new File(context.getDataDir(), "shared_prefs");
+        File prefsSource = new File(prefsDir, "kv_bench_src.xml");
+
+        File kvDir = new File(context.getCacheDir(), "kv_bench");
+        kvDir.mkdirs();
+        File kvSource = new File(kvDir, "src.log");
+        kvSource.delete();
+        KeyValueStore store = new KeyValueStore(kvSource);
+        store.edit()
+                .putBoolean("isLoggedIn", true)
+                .putString("userId", "user-123")
+                .putString("userName", "Bench User")
+                .putString("userEmail", "bench@example.com")
+                .putString("authToken", "token-0123456789abcdef")
+                .putString("userImage", "https://i.scdn.co/image/bench")
+                .apply();
+        store.awaitWrites();
+
+        List<Long> prefsNs = new ArrayList<>();
+        List<Long> kvNs = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            String prefsName = "kv_bench_" + i;
+            copy(prefsSource, new File(prefsDir, prefsName + ".xml"));
+            long start = SystemClock.elapsedRealtimeNanos();
+            String prefsUser = context.getSharedPreferences(prefsName, Context.MODE_PRIVATE)
+                    .getString("userId", null);
+            prefsNs.add(SystemClock.elapsedRealtimeNanos() - start);
+            assertEquals("user-123", prefsUser);
+
+            File kvCopy = new File(kvDir, i + ".log");
+            copy(kvSource, kvCopy);
+            start = SystemClock.elapsedRealtimeNanos();
+            String kvUser = new KeyValueStore(kvCopy).getString("userId", null);
+            kvNs.add(SystemClock.elapsedRealtimeNanos() - start);
+            assertEquals("user-123", kvUser);
+
+            context.deleteSharedPreferences(prefsName);
+            kvCopy.delete();
+        }
+        context.deleteSharedPreferences("kv_bench_src");
+
+        Log.i(TAG, "📊 Cold first read, " + ITERATIONS + " runs: SharedPreferences " + summary(prefsNs)
+                + " | KeyValueStore " + summary(kvNs));
+    }
+
+    private static void copy(File from, File to) throws IOException {
+        Files.copy(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String summary(List<Long> samplesNs) {
+        List<Long> sorted = new ArrayList<>(samplesNs);
+        Collections.sort(sorted);
+        return "p50 " + micros(sorted, 50) + " µs, p95 " + micros(sorted, 95) + " µs";
+    }
+
+    private static long micros(List<Long> sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1)) / 1000;
+    }
+}
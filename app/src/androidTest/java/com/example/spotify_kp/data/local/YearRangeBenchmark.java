@@ -0,0 +1,144 @@
+package com.example.spotify_kp.data.local;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.query.AlbumFilter;
+import com.example.spotify_kp.data.local.query.AlbumQueryBuilder;
+import com.example.spotify_kp.utils.ReleaseDate;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Фильтр каталога по диапазону лет на ROWS альбомах: range scan по
+ * index_albums_year против того же запроса без индекса и против сравнения
+ * строк, как было, пока year хранился текстом. p50 / p95 в logcat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class YearRangeBenchmark {
+    private static final String TAG = "YearRangeBenchmark";
+    private static final int ITERATIONS = 30;
+    private static final int ROWS = 10_000;
+    private static final int FROM_YEAR = 2015;
+    private static final int TO_YEAR = 2020;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private AppDatabase database;
+    private SupportSQLiteDatabase db;
+
+    @Before
+    public void setUp() {
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        List<AlbumEntity> albums = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            albums.add(album(i));
+        }
+        database.albumDao().insertAll(albums);
+        db = database.getOpenHelper().getReadableDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void rangeUsesYearIndex() {
+        String plan = queryPlan("SELECT id FROM albums WHERE year BETWEEN "
+                + FROM_YEAR + " AND " + TO_YEAR);
+        assertTrue(plan, plan.contains("index_albums_year"));
+    }
+
+    @Test
+    public void yearRange() {
+        AlbumFilter filter = AlbumFilter.EMPTY.withYearRange(FROM_YEAR, TO_YEAR);
+        Object[] args = {FROM_YEAR, TO_YEAR};
+
+        int expected = count("SELECT id FROM albums WHERE year BETWEEN ? AND ?", args);
+        assertTrue(expected > 0);
+
+        measure("catalog filter", expected, () -> database.albumDao()
+                .filterAlbumListItemsSync(AlbumQueryBuilder.build(filter)).size());
+        measure("full rows", expected, () -> count("SELECT * FROM albums "
+                + "WHERE year BETWEEN ? AND ? ORDER BY created_at DESC", args));
+        measure("no index", expected, () -> count("SELECT id, title, artist, cover_url "
+                + "FROM albums NOT INDEXED WHERE year BETWEEN ? AND ? "
+                + "ORDER BY created_at DESC", args));
+        measure("text year", expected, () -> count("SELECT id, title, artist, cover_url "
+                + "FROM albums WHERE CAST(year AS TEXT) BETWEEN ? AND ? "
+                + "ORDER BY created_at DESC",
+                new Object[]{String.valueOf(FROM_YEAR), String.valueOf(TO_YEAR)}));
+    }
+
+    private static void measure(String mode, int expected, IntSupplier query) {
+        List<Long> samplesUs = new ArrayList<>(ITERATIONS);
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            int rows = query.getAsInt();
+            samplesUs.add((System.nanoTime() - start) / 1000);
+            assertEquals(mode, expected, rows);
+        }
+
+        Collections.sort(samplesUs);
+        Log.d(TAG, "⏱️ " + ROWS + " albums, " + FROM_YEAR + "–" + TO_YEAR + ", " + mode
+                + ": p50 " + samplesUs.get(samplesUs.size() / 2) + " µs, p95 "
+                + samplesUs.get((int) Math.ceil(samplesUs.size() * 0.95) - 1) + " µs");
+    }
+
+    private int count(String sql, Object[] args) {
+        try (Cursor cursor = db.query(sql, args)) {
+            int n = 0;
+            while (cursor.moveToNext()) {
+                n++;
+            }
+            return n;
+        }
+    }
+
+    private String queryPlan(String sql) {
+        StringBuilder plan = new StringBuilder();
+        try (Cursor cursor = db.query("EXPLAIN QUERY PLAN " + sql)) {
+            while (cursor.moveToNext()) {
+                plan.append(cursor.getString(cursor.getColumnIndexOrThrow("detail"))).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static AlbumEntity album(int i) {
+        // Годы 1960..2024; каждый 20-й альбом без даты, как у части ответов API
+        boolean unknown = i % 20 == 0;
+        LocalDate released = LocalDate.of(1960 + i % 65, 1 + i % 12, 1 + i % 28);
+
+        AlbumEntity album = new AlbumEntity();
+        album.setId("bench-" + i);
+        album.setTitle("Album " + i);
+        album.setArtist("Artist " + (i % 300));
+        album.setYear(unknown ? null : released.getYear());
+        album.setReleaseDay(unknown ? null : released.toEpochDay());
+        album.setReleaseDatePrecision(unknown ? null : ReleaseDate.PRECISION_DAY);
+        album.setCoverUrl("https://i.scdn.co/image/bench-" + i);
+        album.setTotalTracks(10);
+        album.setCreatedAt(1_700_000_000_000L + i);
+        return album;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.spotify_kp.data.search;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.model.AlbumListItem;
+import com.example.spotify_kp.memory.MemoryPressureCoordinator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Поиск по подстроке на 1k / 10k альбомов: триграммный индекс против
+ * LIKE-запроса в SQLite (как каталог искал раньше) и линейного прохода
+ * по нормализованным строкам (как фильтр новинок без индекса).
+ *
+ * БД - in-memory, индекс строится над ней же. Перед замером проверяется,
+ * что индекс находит ровно то же, что линейный проход. p50 / p95 в logcat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AlbumSearchIndexBenchmark {
+    private static final String TAG = "AlbumSearchIndexBench";
+    private static final int ITERATIONS = 50;
+    private static final int[] ALBUM_COUNTS = {1_000, 10_000};
+    private static final String[] QUERIES = {"lov", "night", "the bea", "zeppelin", "xyz"};
+
+    private static final String[] WORDS = {"love", "night", "dream", "city", "fire",
+            "blue", "heart", "summer", "ghost", "river", "beatles", "zeppelin", "moon"};
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private AppDatabase database;
+
+    @Before
+    public void setUp() {
+        database = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void substringSearch() throws Exception {
+        int inserted = 0;
+        for (int count : ALBUM_COUNTS) {
+            List<AlbumEntity> albums = new ArrayList<>(count - inserted);
+            for (int i = inserted; i < count; i++) {
+                albums.add(album(i));
+            }
+            database.albumDao().insertAll(albums);
+            inserted = count;
+
+            AlbumSearchIndex index = new AlbumSearchIndex(database,
+                    new MemoryPressureCoordinator(context));
+            assertTrue(index.awaitReady());
+
+            List<AlbumListItem> items = database.albumDao().getAllAlbumListItemsSync();
+            String[] keys = new String[items.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = AlbumSearchIndex.normalize(items.get(i).getTitle())
+                        + '\n' + AlbumSearchIndex.normalize(items.get(i).getArtist());
+            }
+
+            for (String query : QUERIES) {
+                assertEquals(query, idsOf(linearScan(items, keys, query)),
+                        idsOf(index.searchSubstring(query)));
+
+                List<Long> indexSamples = new ArrayList<>(ITERATIONS);
+                List<Long> likeSamples = new ArrayList<>(ITERATIONS);
+                List<Long> scanSamples = new ArrayList<>(ITERATIONS);
+                for (int i = 0; i < ITERATIONS; i++) {
+                    long start = System.nanoTime();
+                    index.searchSubstring(query);
+                    indexSamples.add((System.nanoTime() - start) / 1000);
+
+                    start = System.nanoTime();
+                    likeQuery(query);
+                    likeSamples.add((System.nanoTime() - start) / 1000);
+
+                    start = System.nanoTime();
+                    linearScan(items, keys, query);
+                    scanSamples.add((System.nanoTime() - start) / 1000);
+                }
+                report(count, query, "index", indexSamples);
+                report(count, query, "LIKE", likeSamples);
+                report(count, query, "scan", scanSamples);
+            }
+        }
+    }
+
+    private int likeQuery(String query) {
+        String pattern = "%" + query + "%";
+        try (Cursor cursor = database.getOpenHelper().getReadableDatabase().query(
+                "SELECT id, title, artist, cover_url FROM albums "
+                        + "WHERE title LIKE ? OR artist LIKE ?", new Object[]{pattern, pattern})) {
+            int n = 0;
+            while (cursor.moveToNext()) {
+                n++;
+            }
+            return n;
+        }
+    }
+
+    private static List<AlbumListItem> linearScan(List<AlbumListItem> items, String[] keys,
+                                                  String query) {
+        String q = AlbumSearchIndex.normalize(query);
+        List<AlbumListItem> result = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].contains(q)) {
+                result.add(items.get(i));
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> idsOf(List<AlbumListItem> albums) {
+        Set<String> ids = new HashSet<>(albums.size() * 2);
+        for (AlbumListItem album : albums) {
+            ids.add(album.getId());
+        }
+        return ids;
+    }
+
+    private static AlbumEntity album(int i) {
+        AlbumEntity album = new AlbumEntity();
+        album.setId("bench-" + i);
+        album.setTitle(capitalize(WORDS[i % WORDS.length]) + " "
+                + capitalize(WORDS[(i / WORDS.length) % WORDS.length]) + " " + i);
+        album.setArtist((i % 7 == 0 ? "The " : "") + capitalize(WORDS[(i * 7) % WORDS.length]));
+        album.setCoverUrl("https://i.scdn.co/image/bench-" + i);
+        album.setTotalTracks(10);
+        album.setCreatedAt(System.currentTimeMillis());
+        return album;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static void report(int count, String query, String mode, List<Long> samplesUs) {
+        Collections.sort(samplesUs);
+        Log.d(TAG, "⏱️ " + count + " albums, \"" + query + "\", " + mode + ": p50 "
+                + samplesUs.get(samplesUs.size() / 2) + " µs, p95 "
+                + samplesUs.get((int) Math.ceil(samplesUs.size() * 0.95) - 1) + " µs");
+    }
+}
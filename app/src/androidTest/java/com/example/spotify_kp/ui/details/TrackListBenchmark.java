@@ -0,0 +1,119 @@
+package com.example.spotify_kp.ui.details;
+
+import android.content.Context;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.spotify_kp.R;
+import com.example.spotify_kp.data.local.entity.TrackEntity;
+import com.example.spotify_kp.ui.details.adapter.TrackAdapter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Первый кадр списка треков: measure + layout RecyclerView сразу после setTracks,
+ * с пустым пулом и с пулом, заполненным как в DetailsActivity.
+ * Альбомы на 10 / 50 / 200 треков; p50 / p95 в logcat.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TrackListBenchmark {
+    private static final String TAG = "TrackListBenchmark";
+    private static final int ITERATIONS = 20;
+    private static final int[] TRACK_COUNTS = {10, 50, 200};
+
+    private final Context context = new ContextThemeWrapper(
+            InstrumentationRegistry.getInstrumentation().getTargetContext(),
+            R.style.Theme_Spotify_kp);
+
+    @Test
+    public void preinflateFillsPoolToTarget() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            TrackAdapter adapter = new TrackAdapter();
+            RecyclerView recyclerView = newTrackList(adapter);
+
+            int calls = 0;
+            while (adapter.preinflate(recyclerView, DetailsActivity.PREINFLATE_TRACK_VIEWS)) {
+                calls++;
+            }
+            assertEquals(DetailsActivity.PREINFLATE_TRACK_VIEWS, calls + 1);
+            assertEquals(DetailsActivity.PREINFLATE_TRACK_VIEWS,
+                    recyclerView.getRecycledViewPool().getRecycledViewCount(TrackAdapter.VIEW_TYPE));
+        });
+    }
+
+    @Test
+    public void firstLayout() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            for (int count : TRACK_COUNTS) {
+                List<TrackEntity> tracks = tracks(count);
+                report(count, "cold", measure(tracks, false));
+                report(count, "preinflated", measure(tracks, true));
+            }
+        });
+    }
+
+    private List<Long> measure(List<TrackEntity> tracks, boolean preinflate) {
+        DisplayMetrics display = context.getResources().getDisplayMetrics();
+        int widthSpec = View.MeasureSpec.makeMeasureSpec(display.widthPixels, View.MeasureSpec.EXACTLY);
+        int heightSpec = View.MeasureSpec.makeMeasureSpec(display.heightPixels, View.MeasureSpec.EXACTLY);
+
+        List<Long> samples = new ArrayList<>(ITERATIONS);
+        for (int i = 0; i < ITERATIONS; i++) {
+            TrackAdapter adapter = new TrackAdapter();
+            RecyclerView recyclerView = newTrackList(adapter);
+            if (preinflate) {
+                while (adapter.preinflate(recyclerView, DetailsActivity.PREINFLATE_TRACK_VIEWS)) {
+                    // до полного пула, как idle-обработчик DetailsActivity
+                }
+            }
+
+            long start = System.nanoTime();
+            adapter.setTracks(tracks);
+            recyclerView.measure(widthSpec, heightSpec);
+            recyclerView.layout(0, 0, display.widthPixels, display.heightPixels);
+            samples.add((System.nanoTime() - start) / 1000);
+        }
+        return samples;
+    }
+
+    private RecyclerView newTrackList(TrackAdapter adapter) {
+        RecyclerView recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        recyclerView.setAdapter(adapter);
+        return recyclerView;
+    }
+
+    private static List<TrackEntity> tracks(int count) {
+        List<TrackEntity> tracks = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            TrackEntity track = new TrackEntity();
+            track.setAlbumId("bench-album");
+            track.setTrackNumber(i);
+            track.setName("Track " + i);
+            track.setDurationMs(180_000 + i * 1000);
+            tracks.add(track);
+        }
+        return tracks;
+    }
+
+    private static void report(int count, String mode, List<Long> samplesUs) {
+        Collections.sort(samplesUs);
+        Log.d(TAG, "⏱️ " + count + " tracks, " + mode + ": p50 "
+                + samplesUs.get(samplesUs.size() / 2) + " µs, p95 "
+                + samplesUs.get((int) Math.ceil(samplesUs.size() * 0.95) - 1) + " µs");
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.spotify_kp;
+
+import android.content.Context;
+import android.util.LruCache;
+
+import com.example.spotify_kp.data.cache.AlbumMemoryCache;
+import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.data.local.entity.TrackEntity;
+import com.example.spotify_kp.data.repository.AlbumRepository;
+import com.example.spotify_kp.data.repository.AuthRepository;
+import com.example.spotify_kp.data.repository.FavoriteRepository;
+import com.example.spotify_kp.data.repository.NewReleasesRepository;
+import com.example.spotify_kp.data.repository.TrackRepository;
+import com.example.spotify_kp.memory.MemoryPressureCoordinator;
+
+import java.util.List;
+
+/**
+ * Зависимости уровня приложения: по одному репозиторию каждого типа
+ * общий L1-кеш альбомов и координатор нехватки памяти.
+ * Всё создаётся лениво, при первом обращении.
+ */
+public class AppContainer {
+
+    private final Context context;
+
+    private MemoryPressureCoordinator memoryPressure;
+    private AlbumMemoryCache albumCache;
+    private AlbumRepository albumRepository;
+    private FavoriteRepository favoriteRepository;
+    private NewReleasesRepository newReleasesRepository;
+    private LruCache<String, List<TrackEntity>> trackCache;
+    private TrackRepository trackRepository;
+    private AuthRepository authRepository;
+
+    public AppContainer(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public static AppContainer from(Context context) {
+        return ((SpotifyApplication) context.getApplicationContext()).getContainer();
+    }
+
+    public synchronized AlbumMemoryCache getAlbumCache() {
+        if (albumCache == null) {
+            albumCache = new AlbumMemoryCache(
+                    AlbumMemoryCache.DEFAULT_MAX_ALBUMS, AlbumMemoryCache.DEFAULT_MAX_WEIGHT_BYTES);
+            // Записи, положенные до изменения albums, больше не отдаются
+            albumCache.invalidateOnChanges(AppDatabase.getInstance(context));
+
+            AlbumMemoryCache cache = albumCache;
+            getMemoryPressure().register(stage -> {
+                if (stage.isAtLeast(MemoryPressureCoordinator.Stage.CRITICAL)) {
+                    cache.clear();
+                } else if (stage.isAtLeast(MemoryPressureCoordinator.Stage.CACHES)) {
+                    cache.trimTo(0.5f);
+                }
+            });
+        }
+        return albumCache;
+    }
+
+    public synchronized MemoryPressureCoordinator getMemoryPressure() {
+        if (memoryPressure == null) {
+            memoryPressure = new MemoryPressureCoordinator(context);
+        }
+        return memoryPressure;
+    }
+
+    public synchronized AlbumRepository getAlbumRepository() {
+        if (albumRepository == null) {
+            albumRepository = new AlbumRepository(context, getAlbumCache());
+        }
+        return albumRepository;
+    }
+
+    public synchronized FavoriteRepository getFavoriteRepository() {
+        if (favoriteRepository == null) {
+            favoriteRepository = new FavoriteRepository(context);
+        }
+        return favoriteRepository;
+    }
+
+    public synchronized NewReleasesRepository getNewReleasesRepository() {
+        if (newReleasesRepository == null) {
+            newReleasesRepository = new NewReleasesRepository(context);
+        }
+        return newReleasesRepository;
+    }
+
+    public synchronized TrackRepository getTrackRepository() {
+        if (trackRepository == null) {
+            trackRepository = new TrackRepository(context, getTrackCache());
+        }
+        return trackRepository;
+    }
+
+    /**
+     * Треки последних открытых альбомов; при нехватке памяти отдаются целиком (Room рядом)
+     */
+    public synchronized LruCache<String, List<TrackEntity>> getTrackCache() {
+        if (trackCache == null) {
+            trackCache = new LruCache<>(TrackRepository.MAX_ALBUMS_IN_MEMORY);
+
+            LruCache<String, List<TrackEntity>> cache = trackCache;
+            getMemoryPressure().register(stage -> {
+                if (stage.isAtLeast(MemoryPressureCoordinator.Stage.CACHES)) {
+                    cache.evictAll();
+                }
+            });
+        }
+        return trackCache;
+    }
+
+    public synchronized AuthRepository getAuthRepository() {
+        if (authRepository == null) {
+            authRepository = new AuthRepository(context);
+        }
+        return authRepository;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.spotify_kp;
+
+import android.app.Application;
+import android.content.pm.ApplicationInfo;
+import android.os.StrictMode;
+import android.util.Log;
+
+import androidx.profileinstaller.ProfileVerifier;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import com.example.spotify_kp.data.local.KeyValueStore;
+import com.example.spotify_kp.startup.StartupTrace;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Точка входа процесса: держит {@link AppContainer} и передаёт
+ * onTrimMemory / onLowMemory его координатору нехватки памяти.
+ * В debug-сборке включает StrictMode: диск и сеть на главном потоке
+ * попадают в logcat со стектрейсом.
+ */
+public class SpotifyApplication extends Application {
+
+    private static final String TAG = "SpotifyApplication";
+
+    private AppContainer container;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        StartupTrace.get().begin(StartupTrace.PHASE_APPLICATION);
+        container = new AppContainer(this);
+
+        // Сессия и время синхронизации читаются с диска в фоне, пока создаются экраны
+        KeyValueStore.session(this);
+        KeyValueStore.sync(this);
+
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            enableStrictMode();
+        }
+        logBaselineProfileStatus();
+        StartupTrace.get().end(StartupTrace.PHASE_APPLICATION);
+    }
+
+    public AppContainer getContainer() {
+        return container;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        container.getMemoryPressure().onTrimMemory(level);
+    }
+
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        container.getMemoryPressure().onLowMemory();
+    }
+
+    /**
+     * Применён ли baseline profile (для сравнения метрик старта с профилем и без).
+     * Статус попадает в запись запуска StartupTrace. Ни один поток его не ждёт:
+     * listener выполняется там, где profileinstaller завершил проверку
+     */
+    private void logBaselineProfileStatus() {
+        ListenableFuture<ProfileVerifier.CompilationStatus> future =
+                ProfileVerifier.getCompilationStatusAsync();
+        future.addListener(() -> {
+            try {
+                // Future уже завершён - get() не блокирует
+                ProfileVerifier.CompilationStatus status = future.get();
+                String state = status.isCompiledWithProfile() ? "compiled"
+                        : status.hasProfileEnqueuedForCompilation() ? "enqueued"
+                        : "none";
+                StartupTrace.get().putAttribute("baselineProfile", state);
+                Log.d(TAG, "📈 Baseline profile: " + state
+                        + " (install result " + status.getProfileInstallResultCode() + ")");
+            } catch (ExecutionException e) {
+                Log.w(TAG, "⚠️ Baseline profile status unavailable: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, Runnable::run);
+    }
+
+    private void enableStrictMode() {
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .detectNetwork()
+                .detectCustomSlowCalls()
+                .penaltyLog()
+                .build());
+
+        StrictMode.setVmPolicy(new StrictMode.VmPolicy.Builder()
+                .detectLeakedSqlLiteObjects()
+                .detectLeakedClosableObjects()
+                .detectActivityLeaks()
+                .penaltyLog()
+                .build());
+
+        Log.d(TAG, "🚨 StrictMode enabled (debug build)");
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.spotify_kp.data.cache;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.InvalidationTracker;
+
+import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.data.local.entity.AlbumEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * L1-кеш полных альбомов в памяти (id → AlbumEntity), общий для всего приложения.
+ * Заполняется при чтении списков и деталей из БД, читается экраном деталей и избранным.
+ *
+ * LRU с двумя ограничениями: число записей и примерный вес в байтах.
+ * Все операции под одним замком - кеш можно читать и писать из любых потоков.
+ * Изменение таблицы albums делает все записи, положенные до него, устаревшими.
+ *
+ * InvalidationTracker сообщает об изменении асинхронно, уже после commit.
+ * Поэтому читатель берёт {@link #currentGeneration()} ДО запроса к БД и передаёт
+ * его в put: если таблица успела измениться, прочитанные строки в кеш не попадут.
+ * Писатели (insert после синхронизации) кеш не заполняют - их же изменение
+ * сделало бы записи устаревшими; следующее чтение положит свежие строки.
+ */
+public class AlbumMemoryCache {
+
+    private static final String TAG = "AlbumMemoryCache";
+
+    public static final int DEFAULT_MAX_ALBUMS = 200;
+    public static final long DEFAULT_MAX_WEIGHT_BYTES = 512 * 1024;
+
+    private final int maxAlbums;
+    private final long maxWeightBytes;
+
+    // accessOrder = true: get() переносит запись в конец, вытесняем с начала
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weightBytes = 0;
+
+    // Поколение данных albums; растёт при каждом изменении таблицы (под замком)
+    private volatile long generation = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long staleDrops = 0;
+    private long rejectedPuts = 0;
+
+    private static final class Entry {
+        final AlbumEntity album;
+        final int weight;
+        final long generation;
+
+        Entry(AlbumEntity album, int weight, long generation) {
+            this.album = album;
+            this.weight = weight;
+            this.generation = generation;
+        }
+    }
+
+    public AlbumMemoryCache(int maxAlbums, long maxWeightBytes) {
+        this.maxAlbums = maxAlbums;
+        this.maxWeightBytes = maxWeightBytes;
+    }
+
+    /**
+     * Подписка на изменения albums: после записи в таблицу старые объекты не отдаются
+     */
+    public void invalidateOnChanges(AppDatabase database) {
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("albums") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                onTableChanged();
+            }
+        });
+    }
+
+    /**
+     * Таблица albums изменилась: всё, что положено или прочитано до этого, устарело
+     */
+    synchronized void onTableChanged() {
+        generation++;
+    }
+
+    /**
+     * Поколение, которое читатель запоминает перед запросом к БД
+     */
+    public long currentGeneration() {
+        return generation;
+    }
+
+    @Nullable
+    public AlbumEntity get(String albumId) {
+        if (albumId == null) {
+            return null;
+        }
+        synchronized (this) {
+            Entry entry = entries.get(albumId);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            if (entry.generation != generation) {
+                removeEntry(albumId);
+                staleDrops++;
+                misses++;
+                return null;
+            }
+            hits++;
+            return entry.album;
+        }
+    }
+
+    /**
+     * Свежие записи для albumIds, прочитанные под одним замком (id → альбом).
+     * Чего нет в ответе - читать из БД: отдельные get() после missingIds()
+     * могли бы потерять запись, вытесненную или устаревшую между вызовами
+     */
+    public Map<String, AlbumEntity> getAll(List<String> albumIds) {
+        Map<String, AlbumEntity> found = new HashMap<>();
+        synchronized (this) {
+            for (String id : albumIds) {
+                Entry entry = id != null ? entries.get(id) : null;
+                if (entry == null) {
+                    misses++;
+                } else if (entry.generation != generation) {
+                    removeEntry(id);
+                    staleDrops++;
+                    misses++;
+                } else {
+                    hits++;
+                    found.put(id, entry.album);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param readGeneration {@link #currentGeneration()} до чтения альбома из БД
+     * @return false, если таблица с тех пор изменилась и альбом не положен
+     */
+    public boolean put(AlbumEntity album, long readGeneration) {
+        if (album == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (readGeneration != generation) {
+                rejectedPuts++;
+                return false;
+            }
+            putLocked(album);
+            trimLocked();
+            return true;
+        }
+    }
+
+    /**
+     * @param readGeneration {@link #currentGeneration()} до чтения альбомов из БД
+     * @return false, если таблица с тех пор изменилась и ничего не положено
+     */
+    public boolean putAll(List<AlbumEntity> albums, long readGeneration) {
+        if (albums == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (readGeneration != generation) {
+                rejectedPuts += albums.size();
+                return false;
+            }
+            for (AlbumEntity album : albums) {
+                if (album != null) {
+                    putLocked(album);
+                }
+            }
+            trimLocked();
+            return true;
+        }
+    }
+
+    public synchronized void remove(String albumId) {
+        removeEntry(albumId);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weightBytes = 0;
+    }
+
+    /**
+     * Уменьшить кеш до доли от лимитов (например, при нехватке памяти)
+     */
+    public synchronized void trimTo(float fraction) {
+        int targetCount = (int) (maxAlbums * fraction);
+        long targetWeight = (long) (maxWeightBytes * fraction);
+        evictUntil(targetCount, targetWeight);
+    }
+
+    /**
+     * id, которых нет в памяти или которые устарели (для подгрузки одним запросом).
+     * Счётчики попаданий не трогает.
+     */
+    public synchronized List<String> missingIds(List<String> albumIds) {
+        List<String> missing = new ArrayList<>();
+        for (String id : albumIds) {
+            Entry entry = entries.get(id);
+            if (entry == null || entry.generation != generation) {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, staleDrops, rejectedPuts, entries.size(), weightBytes);
+    }
+
+    public void logStats() {
+        Log.d(TAG, "📊 " + getStats());
+    }
+
+    private void putLocked(AlbumEntity album) {
+        Entry entry = new Entry(album, weightOf(album), generation);
+        Entry previous = entries.put(album.getId(), entry);
+        if (previous != null) {
+            weightBytes -= previous.weight;
+        }
+        weightBytes += entry.weight;
+    }
+
+    private void trimLocked() {
+        evictUntil(maxAlbums, maxWeightBytes);
+    }
+
+    private void evictUntil(int maxCount, long maxWeight) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxCount || weightBytes > maxWeight) && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            weightBytes -= eldest.weight;
+            evictions++;
+        }
+    }
+
+    private void removeEntry(String albumId) {
+        Entry removed = entries.remove(albumId);
+        if (removed != null) {
+            weightBytes -= removed.weight;
+        }
+    }
+
+    /**
+     * Примерный размер объекта: заголовок + поля + строки (UTF-16)
+     */
+    private static int weightOf(AlbumEntity album) {
+        return 64
+                + stringWeight(album.getId())
+                + stringWeight(album.getTitle())
+                + stringWeight(album.getArtist())
+                + stringWeight(album.getGenre())
+                + stringWeight(album.getCoverUrl())
+                + stringWeight(album.getSpotifyId());
+    }
+
+    private static int stringWeight(String value) {
+        return value != null ? 40 + value.length() * 2 : 0;
+    }
+
+    /**
+     * Снимок счётчиков кеша
+     */
+    public static final class Stats {
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final long staleDrops;
+        public final long rejectedPuts;
+        public final int size;
+        public final long weightBytes;
+
+        Stats(long hits, long misses, long evictions, long staleDrops, long rejectedPuts,
+              int size, long weightBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.staleDrops = staleDrops;
+            this.rejectedPuts = rejectedPuts;
+            this.size = size;
+            this.weightBytes = weightBytes;
+        }
+
+        public float hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0f : (float) hits / total;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "hits=" + hits + " misses=" + misses
+                    + " hitRate=" + Math.round(hitRate() * 100) + "%"
+                    + " evictions=" + evictions + " stale=" + staleDrops + " rejected=" + rejectedPuts
+                    + " size=" + size + " weight=" + weightBytes / 1024 + "KB";
+        }
+    }
+}
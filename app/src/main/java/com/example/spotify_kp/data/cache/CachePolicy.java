@@ -0,0 +1,76 @@
+package com.example.spotify_kp.data.cache;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Политика кеша для ресурса: откуда брать данные и сколько они считаются свежими.
+ * Репозиторий объявляет свою политику, выполняет её {@link CachePolicyEngine}.
+ */
+public final class CachePolicy {
+
+    public enum Mode {
+        // Только локальные данные, сеть не трогаем
+        CACHE_ONLY,
+        // Кеш без срока годности; в сеть - только если кеша нет
+        CACHE_FIRST,
+        // Показываем кеш и всегда идём в сеть
+        CACHE_THEN_NETWORK,
+        // Сначала сеть; кеш - только если сеть недоступна или упала
+        NETWORK_FIRST,
+        // Показываем кеш сразу; в сеть - только если он старше maxAge
+        STALE_WHILE_REVALIDATE
+    }
+
+    private final Mode mode;
+    private final long maxAgeMs;
+
+    private CachePolicy(Mode mode, long maxAgeMs) {
+        this.mode = mode;
+        this.maxAgeMs = Math.max(0, maxAgeMs);
+    }
+
+    public static CachePolicy cacheOnly() {
+        return new CachePolicy(Mode.CACHE_ONLY, Long.MAX_VALUE);
+    }
+
+    public static CachePolicy cacheFirst() {
+        return new CachePolicy(Mode.CACHE_FIRST, Long.MAX_VALUE);
+    }
+
+    public static CachePolicy cacheThenNetwork() {
+        return new CachePolicy(Mode.CACHE_THEN_NETWORK, 0);
+    }
+
+    public static CachePolicy networkFirst() {
+        return new CachePolicy(Mode.NETWORK_FIRST, 0);
+    }
+
+    public static CachePolicy staleWhileRevalidate(long maxAgeMs) {
+        return new CachePolicy(Mode.STALE_WHILE_REVALIDATE, maxAgeMs);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getMaxAgeMs() {
+        return maxAgeMs;
+    }
+
+    /**
+     * Данные возрастом ageMs ещё свежие (ageMs < 0 - возраст неизвестен).
+     * С maxAge = Long.MAX_VALUE кеш не устаревает, даже если возраст неизвестен
+     */
+    public boolean isFresh(long ageMs) {
+        return maxAgeMs == Long.MAX_VALUE || (ageMs >= 0 && ageMs <= maxAgeMs);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        if (mode != Mode.STALE_WHILE_REVALIDATE) {
+            return mode.toString();
+        }
+        return mode + (maxAgeMs == Long.MAX_VALUE ? "(∞)" : "(" + maxAgeMs / 60000 + " min)");
+    }
+}
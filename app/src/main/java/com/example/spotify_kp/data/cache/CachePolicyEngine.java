@@ -0,0 +1,136 @@
+package com.example.spotify_kp.data.cache;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.utils.NetworkUtils;
+import com.example.spotify_kp.utils.Resource;
+
+/**
+ * Выполняет {@link CachePolicy} для одного ресурса.
+ * Каждая выдача помечена возрастом данных: UI сразу показывает устаревший кеш
+ * и молча подменяет его свежими данными, когда они придут.
+ */
+public class CachePolicyEngine {
+    private static final String TAG = "CachePolicyEngine";
+
+    /**
+     * Источник данных ресурса. Методы вызываются в фоновом потоке
+     */
+    public interface Source<T> {
+        /** Данные из локального кеша или null, если их нет */
+        T loadFromCache();
+
+        /** Время последней загрузки с сервера (0 - ещё не загружали) */
+        long lastFetchedAt();
+
+        /** Загрузка с сервера; сохранить в кеш и сообщить результат в callback */
+        void fetchFromNetwork(FetchCallback<T> callback);
+    }
+
+    public interface FetchCallback<T> {
+        void onFetched(T data);
+
+        void onFailed(String message);
+    }
+
+    private final Context context;
+
+    public CachePolicyEngine(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public <T> LiveData<Resource<T>> load(String name, CachePolicy policy, Source<T> source) {
+        MutableLiveData<Resource<T>> result = new MutableLiveData<>();
+        result.setValue(Resource.loading(null));
+
+        AppDatabase.databaseExecutor.execute(() -> run(name, policy, source, result));
+        return result;
+    }
+
+    private <T> void run(String name, CachePolicy policy, Source<T> source,
+                         MutableLiveData<Resource<T>> result) {
+        boolean online = NetworkUtils.isNetworkAvailable(context);
+
+        if (policy.getMode() == CachePolicy.Mode.NETWORK_FIRST && online) {
+            fetch(name, source, result, true);
+            return;
+        }
+
+        T cached = source.loadFromCache();
+        long age = ageOf(source.lastFetchedAt());
+        boolean fresh = policy.isFresh(age);
+
+        if (cached != null) {
+            result.postValue(Resource.success(cached, age, !fresh));
+        }
+
+        boolean revalidate;
+        switch (policy.getMode()) {
+            case CACHE_ONLY:
+                revalidate = false;
+                break;
+            case CACHE_FIRST:
+                revalidate = cached == null;
+                break;
+            case STALE_WHILE_REVALIDATE:
+                revalidate = cached == null || !fresh;
+                break;
+            default:
+                // CACHE_THEN_NETWORK, а также NETWORK_FIRST без сети
+                revalidate = true;
+                break;
+        }
+
+        Log.d(TAG, "🧭 " + name + " " + policy + ": cache=" + (cached != null)
+                + " age=" + (age < 0 ? "?" : age / 1000 + "s")
+                + (revalidate && online ? " → network" : ""));
+
+        if (revalidate && online) {
+            fetch(name, source, result, cached == null);
+        } else if (cached == null) {
+            result.postValue(Resource.error(online
+                    ? "No data available"
+                    : "No data available. Please connect to internet.", null));
+        }
+    }
+
+    /**
+     * @param fallbackToCache при ошибке показать кеш (если он ещё не был показан)
+     */
+    private <T> void fetch(String name, Source<T> source, MutableLiveData<Resource<T>> result,
+                           boolean fallbackToCache) {
+        source.fetchFromNetwork(new FetchCallback<T>() {
+            @Override
+            public void onFetched(T data) {
+                result.postValue(Resource.success(data, 0, false));
+            }
+
+            @Override
+            public void onFailed(String message) {
+                Log.e(TAG, "❌ " + name + ": " + message);
+                if (!fallbackToCache) {
+                    // Кеш уже на экране - оставляем его
+                    return;
+                }
+                AppDatabase.databaseExecutor.execute(() -> {
+                    T cached = source.loadFromCache();
+                    if (cached != null) {
+                        result.postValue(Resource.success(cached,
+                                ageOf(source.lastFetchedAt()), true));
+                    } else {
+                        result.postValue(Resource.error(message, null));
+                    }
+                });
+            }
+        });
+    }
+
+    private static long ageOf(long fetchedAt) {
+        return fetchedAt > 0 ? Math.max(0, System.currentTimeMillis() - fetchedAt) : Resource.AGE_UNKNOWN;
+    }
+}
@@ -8,24 +8,48 @@ import androidx.room.RoomDatabase;
 
 import com.example.spotify_kp.data.local.dao.AlbumDao;
 import com.example.spotify_kp.data.local.dao.FavoriteDao;
+import com.example.spotify_kp.data.local.dao.TrackDao;
 import com.example.spotify_kp.data.local.dao.UserDao;
 import com.example.spotify_kp.data.local.entity.AlbumEntity;
 import com.example.spotify_kp.data.local.entity.FavoriteEntity;
+import com.example.spotify_kp.data.local.entity.TrackEntity;
 import com.example.spotify_kp.data.local.entity.UserEntity;
 import com.example.spotify_kp.utils.Constants;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Database(
-        entities = {UserEntity.class, AlbumEntity.class, FavoriteEntity.class},
+        entities = {UserEntity.class, AlbumEntity.class, FavoriteEntity.class, TrackEntity.class},
         version = Constants.DATABASE_VERSION,
-        exportSchema = false
+        exportSchema = true
 )
 public abstract class AppDatabase extends RoomDatabase {
 
+    private static final int DATABASE_THREADS = 4;
+
     private static AppDatabase instance;
 
+    /**
+     * Общий пул для синхронных DAO-вызовов (вместо new Thread на каждый запрос).
+     * Room использует его же для LiveData-запросов.
+     */
+    public static final ExecutorService databaseExecutor =
+            Executors.newFixedThreadPool(DATABASE_THREADS, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    return new Thread(runnable, "db-io-" + count.incrementAndGet());
+                }
+            });
+
     public abstract UserDao userDao();
     public abstract AlbumDao albumDao();
     public abstract FavoriteDao favoriteDao();
+    public abstract TrackDao trackDao();
 
     public static synchronized AppDatabase getInstance(Context context) {
         if (instance == null) {
@@ -34,11 +58,14 @@ public abstract class AppDatabase extends RoomDatabase {
                             AppDatabase.class,
                             Constants.DATABASE_NAME
                     )
-                    .fallbackToDestructiveMigration()
-                    .allowMainThreadQueries() // ✅ Разрешаем работу в main thread для офлайн работы
+                    // Без destructive fallback: кеш и избранное переносятся миграциями
+                    .addMigrations(DatabaseMigrations.ALL)
+                    .fallbackToDestructiveMigrationOnDowngrade(true)
+                    // Без allowMainThreadQueries: запрос с главного потока - IllegalStateException
+                    .setQueryExecutor(databaseExecutor)
                     .setJournalMode(JournalMode.TRUNCATE) // ✅ БЕЗ WAL! Прямая запись на диск!
                     .build();
         }
         return instance;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package com.example.spotify_kp.data.local;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Миграции схемы БД (версия - Constants.DATABASE_VERSION).
+ * Кеш альбомов и избранное переживают обновление приложения;
+ * экспортированные схемы лежат в app/schemas.
+ */
+public final class DatabaseMigrations {
+
+    private static final String TAG = "DatabaseMigrations";
+
+    // Миграция идёт при первом открытии БД, то есть во время холодного старта;
+    // DatabaseMigrationsTest проверяет бюджет на заполненной БД
+    static final long MIGRATION_BUDGET_MS = 500;
+
+    private DatabaseMigrations() {}
+
+    /**
+     * Миграция с замером времени; превышение бюджета видно в логе
+     */
+    private abstract static class TimedMigration extends Migration {
+
+        TimedMigration(int startVersion, int endVersion) {
+            super(startVersion, endVersion);
+        }
+
+        @Override
+        public final void migrate(@NonNull SupportSQLiteDatabase db) {
+            long start = SystemClock.elapsedRealtime();
+            apply(db);
+            long elapsed = SystemClock.elapsedRealtime() - start;
+
+            if (elapsed > MIGRATION_BUDGET_MS) {
+                Log.w(TAG, "🐢 Migration " + startVersion + " → " + endVersion
+                        + " took " + elapsed + " ms (budget " + MIGRATION_BUDGET_MS + " ms)");
+            } else {
+                Log.d(TAG, "✅ Migration " + startVersion + " → " + endVersion
+                        + " in " + elapsed + " ms");
+            }
+        }
+
+        abstract void apply(@NonNull SupportSQLiteDatabase db);
+    }
+
+    /**
+     * 1 → 2: таблица треков альбомов
+     */
+    public static final Migration MIGRATION_1_2 = new TimedMigration(1, 2) {
+        @Override
+        void apply(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `tracks` ("
+                    + "`album_id` TEXT NOT NULL, `track_number` INTEGER NOT NULL, "
+                    + "`track_id` TEXT, `name` TEXT, `duration_ms` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`album_id`, `track_number`))");
+        }
+    };
+
+    /**
+     * 2 → 3: индексы для фильтров и фасетов по жанру и году
+     */
+    public static final Migration MIGRATION_2_3 = new TimedMigration(2, 3) {
+        @Override
+        void apply(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_albums_genre` ON `albums` (`genre`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_albums_year` ON `albums` (`year`)");
+        }
+    };
+
+    /**
+     * 3 → 4: year TEXT ("2011" / "Unknown") → INTEGER (NULL, если неизвестен),
+     * release_date TEXT → release_day (день эпохи) + release_date_precision.
+     * SQLite не меняет тип колонки, поэтому таблица пересоздаётся.
+     */
+    public static final Migration MIGRATION_3_4 = new TimedMigration(3, 4) {
+        @Override
+        void apply(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `albums_new` ("
+                    + "`id` TEXT NOT NULL, `title` TEXT, `artist` TEXT, `year` INTEGER, "
+                    + "`genre` TEXT, `cover_url` TEXT, `total_tracks` INTEGER NOT NULL, "
+                    + "`release_day` INTEGER, `release_date_precision` INTEGER, "
+                    + "`spotify_id` TEXT, `created_at` INTEGER NOT NULL, PRIMARY KEY(`id`))");
+
+            // julianday('1970-01-01') = 2440587.5; неполные даты - первый день месяца / года
+            db.execSQL("INSERT INTO `albums_new` (`id`, `title`, `artist`, `year`, `genre`, "
+                    + "`cover_url`, `total_tracks`, `release_day`, `release_date_precision`, "
+                    + "`spotify_id`, `created_at`) "
+                    + "SELECT `id`, `title`, `artist`, "
+                    + "CASE WHEN `year` GLOB '[0-9][0-9][0-9][0-9]' "
+                    + "THEN CAST(`year` AS INTEGER) END, "
+                    + "`genre`, `cover_url`, `total_tracks`, "
+                    + "CAST(julianday(CASE length(`release_date`) "
+                    + "WHEN 10 THEN `release_date` "
+                    + "WHEN 7 THEN `release_date` || '-01' "
+                    + "WHEN 4 THEN `release_date` || '-01-01' END) - 2440587.5 AS INTEGER), "
+                    + "CASE length(`release_date`) WHEN 10 THEN 0 WHEN 7 THEN 1 WHEN 4 THEN 2 END, "
+                    + "`spotify_id`, `created_at` FROM `albums`");
+
+            // Дата не разобралась - точность тоже не нужна
+            db.execSQL("UPDATE `albums_new` SET `release_date_precision` = NULL "
+                    + "WHERE `release_day` IS NULL");
+
+            // favorites ссылается на albums с ON DELETE CASCADE: DROP TABLE при включённых
+            // внешних ключах удалил бы всё избранное, поэтому сохраняем и возвращаем его
+            db.execSQL("CREATE TEMP TABLE `favorites_backup` AS SELECT * FROM `favorites`");
+            db.execSQL("DROP TABLE `albums`");
+            db.execSQL("ALTER TABLE `albums_new` RENAME TO `albums`");
+            db.execSQL("INSERT OR IGNORE INTO `favorites` SELECT * FROM `favorites_backup`");
+            db.execSQL("DROP TABLE `favorites_backup`");
+
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_albums_genre` ON `albums` (`genre`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_albums_year` ON `albums` (`year`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_albums_release_day` "
+                    + "ON `albums` (`release_day`)");
+        }
+    };
+
+    /**
+     * 4 → 5: disc_number в ключе треков. Раньше второй диск альбома затирал треки
+     * первого (track_number на каждом диске с 1); у таких альбомов треков в кеше
+     * меньше total_tracks - их треки удаляются и загрузятся заново при открытии.
+     */
+    public static final Migration MIGRATION_4_5 = new TimedMigration(4, 5) {
+        @Override
+        void apply(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `tracks_new` ("
+                    + "`album_id` TEXT NOT NULL, `disc_number` INTEGER NOT NULL DEFAULT 1, "
+                    + "`track_number` INTEGER NOT NULL, `track_id` TEXT, `name` TEXT, "
+                    + "`duration_ms` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`album_id`, `disc_number`, `track_number`))");
+            db.execSQL("INSERT INTO `tracks_new` (`album_id`, `disc_number`, `track_number`, "
+                    + "`track_id`, `name`, `duration_ms`) "
+                    + "SELECT `album_id`, 1, `track_number`, `track_id`, `name`, `duration_ms` "
+                    + "FROM `tracks` WHERE `album_id` NOT IN ("
+                    + "SELECT t.`album_id` FROM `tracks` t JOIN `albums` a ON a.`id` = t.`album_id` "
+                    + "GROUP BY t.`album_id` HAVING COUNT(*) < MAX(a.`total_tracks`))");
+            db.execSQL("DROP TABLE `tracks`");
+            db.execSQL("ALTER TABLE `tracks_new` RENAME TO `tracks`");
+        }
+    };
+
+    /**
+     * Все миграции по порядку - при новой версии схемы добавлять сюда
+     */
+    public static final Migration[] ALL = {
+            MIGRATION_1_2,
+            MIGRATION_2_3,
+            MIGRATION_3_4,
+            MIGRATION_4_5
+    };
+}
@@ -0,0 +1,519 @@
+package com.example.spotify_kp.data.local;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Типизированное key-value хранилище для сессии и метаданных синхронизации
+ * (замена SharedPreferences на горячих путях).
+ *
+ * Файл - журнал пакетов записей, только дозапись: [длина][CRC32][записи].
+ * Чтение - из ConcurrentHashMap в памяти; запись сразу меняет память,
+ * а на диск уходит в фоне одним пакетом. Файл читается в фоне сразу при
+ * создании хранилища (SpotifyApplication.onCreate), поэтому первое чтение
+ * обычно уже не ждёт диска.
+ *
+ * Чтение до конца загрузки блокируется (awaitLoaded). На холодном старте
+ * это может случиться только в первые миллисекунды процесса, поэтому
+ * сессию на старте читают не с главного потока (фаза session в
+ * StartupOrchestrator, проверка входа в SplashActivity). apply() не
+ * блокируется никогда: пакет до конца загрузки ложится поверх загруженных
+ * данных в load().
+ * Оборванный или битый хвост (kill процесса во время записи) отбрасывается,
+ * а файл обрезается до последнего целого пакета - новые пакеты пишутся уже после него.
+ */
+public class KeyValueStore {
+    private static final String TAG = "KeyValueStore";
+
+    public static final String STORE_SESSION = "session";
+    public static final String STORE_SYNC = "sync";
+
+    private static final String DIR_NAME = "kv";
+    private static final int COMPACT_MIN_RECORDS = 64;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_CLEAR = 3;
+
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_BOOLEAN = 3;
+
+    private static final class Op {
+        final byte code;
+        final String key;
+        final Object value;
+
+        Op(byte code, String key, Object value) {
+            this.code = code;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final Map<String, KeyValueStore> instances = new HashMap<>();
+
+    // Один поток на все хранилища: загрузка и записи идут строго по порядку
+    private static final ExecutorService ioExecutor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "kv-io"));
+
+    private final String name;
+    private File file; // только в kv-io
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    // Пакеты apply() до конца загрузки (под lock); load() применит их поверх файла
+    private final List<List<Op>> pendingBatches = new ArrayList<>();
+    // Память и очередь записи меняются вместе, иначе порядок в журнале разойдётся с памятью
+    private final Object lock = new Object();
+
+    // Сколько записей в журнале (для решения о компактизации); только в kv-io
+    private int recordCount = 0;
+    // Битый хвост не удалось обрезать - журнал переписывается сразу после загрузки
+    private boolean compactPending = false;
+    // Импортированные SharedPreferences; удаляются после первой записи журнала (только kv-io)
+    private final List<String> importedPrefs = new ArrayList<>();
+    private Context legacyContext;
+
+    private KeyValueStore(Context context, String name, String... legacyPrefs) {
+        this.name = name;
+
+        // Даже getFilesDir() - обращение к диску, поэтому всё в kv-io
+        Context appContext = context.getApplicationContext();
+        ioExecutor.execute(() -> load(
+                new File(new File(appContext.getFilesDir(), DIR_NAME), name + ".log"),
+                target -> importLegacy(appContext, legacyPrefs, target)));
+    }
+
+    /**
+     * Хранилище поверх заданного файла, без импорта SharedPreferences (тесты, бенчмарк)
+     */
+    KeyValueStore(File file) {
+        this.name = file.getName();
+        ioExecutor.execute(() -> load(file, null));
+    }
+
+    /**
+     * Сессия пользователя (раньше - SpotifyAppPrefs)
+     */
+    public static KeyValueStore session(Context context) {
+        return getInstance(context, STORE_SESSION, "SpotifyAppPrefs");
+    }
+
+    /**
+     * Время синхронизаций (раньше - AlbumSyncPrefs и SyncPrefs)
+     */
+    public static KeyValueStore sync(Context context) {
+        return getInstance(context, STORE_SYNC, "AlbumSyncPrefs", "SyncPrefs");
+    }
+
+    private static synchronized KeyValueStore getInstance(Context context, String name,
+                                                          String... legacyPrefs) {
+        KeyValueStore store = instances.get(name);
+        if (store == null) {
+            store = new KeyValueStore(context.getApplicationContext(), name, legacyPrefs);
+            instances.put(name, store);
+        }
+        return store;
+    }
+
+    // ==================== ЧТЕНИЕ ====================
+
+    public String getString(String key, String defaultValue) {
+        Object value = read(key);
+        return value instanceof String ? (String) value : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Object value = read(key);
+        return value instanceof Long ? (Long) value : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = read(key);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    public boolean contains(String key) {
+        return read(key) != null;
+    }
+
+    private Object read(String key) {
+        awaitLoaded();
+        return values.get(key);
+    }
+
+    private void awaitLoaded() {
+        if (loaded.getCount() == 0) {
+            return;
+        }
+        long start = SystemClock.elapsedRealtime();
+        try {
+            loaded.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Log.d(TAG, "⏳ " + name + ": first read waited " + (SystemClock.elapsedRealtime() - start)
+                + " ms for load");
+    }
+
+    // ==================== ЗАПИСЬ ====================
+
+    public Editor edit() {
+        return new Editor();
+    }
+
+    /**
+     * Пакет изменений: память обновляется в apply(), диск - в фоне одной записью.
+     * Пакеты ложатся в память и в журнал в одном и том же порядке
+     */
+    public class Editor {
+        private final List<Op> ops = new ArrayList<>();
+
+        public Editor putString(String key, String value) {
+            if (value == null) {
+                return remove(key);
+            }
+            ops.add(new Op(OP_PUT, key, value));
+            return this;
+        }
+
+        public Editor putLong(String key, long value) {
+            ops.add(new Op(OP_PUT, key, value));
+            return this;
+        }
+
+        public Editor putBoolean(String key, boolean value) {
+            ops.add(new Op(OP_PUT, key, value));
+            return this;
+        }
+
+        public Editor remove(String key) {
+            ops.add(new Op(OP_REMOVE, key, null));
+            return this;
+        }
+
+        public Editor clear() {
+            ops.add(new Op(OP_CLEAR, null, null));
+            return this;
+        }
+
+        public void apply() {
+            if (ops.isEmpty()) {
+                return;
+            }
+            List<Op> batch = new ArrayList<>(ops);
+            synchronized (lock) {
+                if (loaded.getCount() == 0) {
+                    for (Op op : batch) {
+                        applyToMemory(values, op);
+                    }
+                } else {
+                    // Изменения поверх загруженных данных, чтобы загрузка их не перетёрла
+                    pendingBatches.add(batch);
+                }
+                ioExecutor.execute(() -> append(batch));
+            }
+        }
+    }
+
+    private static void applyToMemory(Map<String, Object> target, Op op) {
+        if (op.code == OP_PUT) {
+            target.put(op.key, op.value);
+        } else if (op.code == OP_REMOVE) {
+            target.remove(op.key);
+        } else if (op.code == OP_CLEAR) {
+            target.clear();
+        }
+    }
+
+    // ==================== ДИСК (только поток kv-io) ====================
+
+    /**
+     * Дождаться, пока kv-io допишет всё, что поставлено в очередь (тесты, бенчмарк)
+     */
+    void awaitWrites() throws InterruptedException {
+        try {
+            ioExecutor.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void load(File logFile, Consumer<Map<String, Object>> legacyImport) {
+        long start = SystemClock.elapsedRealtime();
+        file = logFile;
+        Map<String, Object> restored = new HashMap<>();
+
+        if (file.exists()) {
+            long validLength = readLog(restored);
+            if (validLength < file.length()) {
+                dropTail(validLength);
+            }
+        } else if (legacyImport != null) {
+            legacyImport.accept(restored);
+        }
+
+        // Импорт пишется в журнал до пакетов, сделанных во время загрузки
+        boolean writeImport = compactPending || (!file.exists() && !restored.isEmpty());
+        if (writeImport) {
+            compactPending = false;
+            if (writeSnapshot(restored) && !importedPrefs.isEmpty()) {
+                deleteImportedPrefs();
+            }
+        }
+
+        synchronized (lock) {
+            values.putAll(restored);
+            for (List<Op> batch : pendingBatches) {
+                for (Op op : batch) {
+                    applyToMemory(values, op);
+                }
+            }
+            pendingBatches.clear();
+            loaded.countDown();
+        }
+        Log.d(TAG, "📂 " + name + ": " + restored.size() + " keys loaded in "
+                + (SystemClock.elapsedRealtime() - start) + " ms");
+    }
+
+    /**
+     * Читает пакеты до первого битого и считает записи в recordCount.
+     *
+     * @return длина целой части журнала (конец последнего пакета с верной CRC)
+     */
+    private long readLog(Map<String, Object> target) {
+        int records = 0;
+        long validLength = 0;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                long crc = in.readInt() & 0xFFFFFFFFL;
+                if (length < 0 || length > file.length()) {
+                    Log.w(TAG, "⚠️ " + name + ": broken batch header, dropping tail");
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+
+                CRC32 check = new CRC32();
+                check.update(payload);
+                if (check.getValue() != crc) {
+                    Log.w(TAG, "⚠️ " + name + ": CRC mismatch, dropping tail");
+                    break;
+                }
+                records += decodeBatch(payload, target);
+                validLength += 8 + length;
+            }
+        } catch (EOFException e) {
+            Log.w(TAG, "⚠️ " + name + ": truncated batch, dropping tail");
+        } catch (IOException e) {
+            // Файл не прочитался целиком, но это не значит, что он битый - не обрезаем
+            Log.e(TAG, "❌ " + name + ": read failed: " + e.getMessage());
+            validLength = file.length();
+        }
+        recordCount = records;
+        return validLength;
+    }
+
+    /**
+     * Обрезает журнал до целой части, иначе новые пакеты легли бы за мусором
+     * и при следующей загрузке потерялись бы вместе с ним
+     */
+    private void dropTail(long validLength) {
+        long garbage = file.length() - validLength;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(validLength);
+            raf.getFD().sync();
+            Log.w(TAG, "✂️ " + name + ": truncated " + garbage + " bytes of broken tail");
+        } catch (IOException e) {
+            // Не обрезался - переписываем журнал целиком из того, что прочитали
+            Log.e(TAG, "❌ " + name + ": truncate failed (" + e.getMessage() + "), compacting");
+            compactPending = true;
+        }
+    }
+
+    private static int decodeBatch(byte[] payload, Map<String, Object> target) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            byte code = in.readByte();
+            String key = null;
+            Object value = null;
+            if (code == OP_PUT) {
+                key = in.readUTF();
+                byte type = in.readByte();
+                if (type == TYPE_STRING) {
+                    value = in.readUTF();
+                } else if (type == TYPE_LONG) {
+                    value = in.readLong();
+                } else {
+                    value = in.readBoolean();
+                }
+            } else if (code == OP_REMOVE) {
+                key = in.readUTF();
+            }
+            applyToMemory(target, new Op(code, key, value));
+        }
+        return count;
+    }
+
+    private void importLegacy(Context context, String[] legacyPrefs, Map<String, Object> target) {
+        long start = SystemClock.elapsedRealtime();
+        legacyContext = context;
+        for (String prefsName : legacyPrefs) {
+            SharedPreferences prefs = context.getSharedPreferences(prefsName, Context.MODE_PRIVATE);
+            if (!prefs.getAll().isEmpty()) {
+                importedPrefs.add(prefsName);
+            }
+            for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+                Object value = entry.getValue();
+                if (value instanceof Integer) {
+                    value = ((Integer) value).longValue();
+                }
+                if (value instanceof String || value instanceof Long || value instanceof Boolean) {
+                    target.put(entry.getKey(), value);
+                }
+            }
+        }
+        if (!target.isEmpty()) {
+            // Для сравнения с загрузкой журнала (📂) - холодное чтение XML
+            Log.d(TAG, "📦 " + name + ": imported " + target.size() + " keys from SharedPreferences in "
+                    + (SystemClock.elapsedRealtime() - start) + " ms");
+        }
+    }
+
+    /**
+     * Старые XML (там и токен) больше не нужны: данные уже в журнале
+     */
+    private void deleteImportedPrefs() {
+        for (String prefsName : importedPrefs) {
+            legacyContext.getSharedPreferences(prefsName, Context.MODE_PRIVATE)
+                    .edit().clear().commit();
+            if (!legacyContext.deleteSharedPreferences(prefsName)) {
+                Log.w(TAG, "⚠️ " + name + ": could not delete " + prefsName + ".xml");
+            }
+        }
+        Log.d(TAG, "🧹 " + name + ": removed legacy SharedPreferences " + importedPrefs);
+        importedPrefs.clear();
+        legacyContext = null;
+    }
+
+    private void append(List<Op> batch) {
+        try {
+            writeBatchTo(file, batch, true);
+            recordCount += batch.size();
+        } catch (IOException e) {
+            Log.e(TAG, "❌ " + name + ": write failed: " + e.getMessage());
+            return;
+        }
+
+        if (recordCount > COMPACT_MIN_RECORDS && recordCount > values.size() * 4) {
+            compact();
+        }
+    }
+
+    /**
+     * Переписывает журнал одним пакетом с текущими значениями
+     */
+    private void compact() {
+        writeSnapshot(values);
+    }
+
+    /**
+     * Журнал целиком заменяется одним пакетом с данными source
+     * @return false, если записать не удалось (старый журнал остаётся как был)
+     */
+    private boolean writeSnapshot(Map<String, Object> source) {
+        List<Op> snapshot = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            snapshot.add(new Op(OP_PUT, entry.getKey(), entry.getValue()));
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            writeBatchTo(tmp, snapshot, false);
+            if (!tmp.renameTo(file)) {
+                throw new IOException("rename failed");
+            }
+            recordCount = snapshot.size();
+            Log.d(TAG, "🗜️ " + name + ": compacted to " + snapshot.size() + " records");
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "❌ " + name + ": compaction failed: " + e.getMessage());
+            tmp.delete();
+            return false;
+        }
+    }
+
+    private static void writeBatchTo(File target, List<Op> batch, boolean append)
+            throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeInt(batch.size());
+        for (Op op : batch) {
+            payload.writeByte(op.code);
+            if (op.code == OP_PUT) {
+                payload.writeUTF(op.key);
+                Object value = op.value;
+                if (value instanceof String) {
+                    payload.writeByte(TYPE_STRING);
+                    payload.writeUTF((String) value);
+                } else if (value instanceof Long) {
+                    payload.writeByte(TYPE_LONG);
+                    payload.writeLong((Long) value);
+                } else {
+                    payload.writeByte(TYPE_BOOLEAN);
+                    payload.writeBoolean((Boolean) value);
+                }
+            } else if (op.code == OP_REMOVE) {
+                payload.writeUTF(op.key);
+            }
+        }
+        byte[] bytes = payloadBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        File dir = target.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("cannot create " + dir);
+        }
+
+        try (FileOutputStream out = new FileOutputStream(target, append)) {
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(bytes.length);
+            header.writeInt((int) crc.getValue());
+            header.write(bytes);
+            header.flush();
+            out.getFD().sync();
+        }
+    }
+}
@@ -6,9 +6,13 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.RawQuery;
 import androidx.room.Update;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
 import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.model.AlbumListItem;
+import com.example.spotify_kp.data.local.model.FacetCount;
 
 import java.util.List;
 
@@ -45,7 +49,7 @@ public interface AlbumDao {
     LiveData<List<AlbumEntity>> getAlbumsByGenre(String genre);
 
     @Query("SELECT * FROM albums WHERE year = :year ORDER BY title ASC")
-    LiveData<List<AlbumEntity>> getAlbumsByYear(String year);
+    LiveData<List<AlbumEntity>> getAlbumsByYear(int year);
 
     @Query("SELECT * FROM albums WHERE title LIKE '%' || :query || '%' OR artist LIKE '%' || :query || '%' ORDER BY created_at DESC")
     LiveData<List<AlbumEntity>> searchAlbums(String query);
@@ -58,15 +62,31 @@ public interface AlbumDao {
     @Query("SELECT * FROM albums WHERE id = :albumId LIMIT 1")
     AlbumEntity getAlbumByIdSync(String albumId);
 
+    @Query("SELECT * FROM albums WHERE id IN (:albumIds)")
+    List<AlbumEntity> getAlbumsByIdsSync(List<String> albumIds);
+
     @Query("SELECT * FROM albums WHERE genre = :genre ORDER BY year DESC")
     List<AlbumEntity> getAlbumsByGenreSync(String genre);
 
     @Query("SELECT * FROM albums WHERE year = :year ORDER BY title ASC")
-    List<AlbumEntity> getAlbumsByYearSync(String year);
+    List<AlbumEntity> getAlbumsByYearSync(int year);
 
     @Query("SELECT * FROM albums WHERE title LIKE '%' || :query || '%' OR artist LIKE '%' || :query || '%' ORDER BY created_at DESC")
     List<AlbumEntity> searchAlbumsSync(String query);
 
+    // ===== QUERIES - СПИСКИ (только колонки карточки, см. AlbumListItem) =====
+
+    @Query("SELECT " + AlbumListItem.COLUMNS + " FROM albums ORDER BY created_at DESC")
+    List<AlbumListItem> getAllAlbumListItemsSync();
+
+    // id первой страницы каталога (тот же порядок, что и у списка)
+    @Query("SELECT id FROM albums ORDER BY created_at DESC LIMIT :limit")
+    List<String> getRecentAlbumIdsSync(int limit);
+
+    // Составной фильтр каталога, SQL собирает AlbumQueryBuilder
+    @RawQuery(observedEntities = AlbumEntity.class)
+    List<AlbumListItem> filterAlbumListItemsSync(SupportSQLiteQuery query);
+
     // ===== UTILITY QUERIES =====
 
     @Query("SELECT COUNT(*) FROM albums")
@@ -78,8 +98,16 @@ public interface AlbumDao {
     @Query("SELECT DISTINCT genre FROM albums WHERE genre IS NOT NULL AND genre != '' ORDER BY genre ASC")
     List<String> getAllGenres();
 
-    @Query("SELECT DISTINCT year FROM albums WHERE year IS NOT NULL AND year != '' AND year != 'Unknown' ORDER BY year DESC")
-    List<String> getAllYears();
+    @Query("SELECT DISTINCT year FROM albums WHERE year IS NOT NULL ORDER BY year DESC")
+    List<Integer> getAllYears();
+
+    // Жанры и годы с количеством альбомов одним запросом (GROUP BY по индексам genre / year)
+    @Query("SELECT 'genre' AS facet, genre AS value, COUNT(*) AS count FROM albums " +
+            "WHERE genre IS NOT NULL AND genre != '' GROUP BY genre " +
+            "UNION ALL " +
+            "SELECT 'year' AS facet, CAST(year AS TEXT) AS value, COUNT(*) AS count FROM albums " +
+            "WHERE year IS NOT NULL GROUP BY year")
+    List<FacetCount> getFacetCounts();
 
     @Query("SELECT * FROM albums ORDER BY created_at DESC LIMIT :limit OFFSET :offset")
     List<AlbumEntity> getAlbumsPaginated(int limit, int offset);
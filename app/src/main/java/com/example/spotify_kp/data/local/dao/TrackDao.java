@@ -0,0 +1,29 @@
+package com.example.spotify_kp.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.spotify_kp.data.local.entity.TrackEntity;
+
+import java.util.List;
+
+@Dao
+public interface TrackDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<TrackEntity> tracks);
+
+    @Query("SELECT * FROM tracks WHERE album_id = :albumId ORDER BY disc_number ASC, track_number ASC")
+    List<TrackEntity> getTracksForAlbumSync(String albumId);
+
+    @Query("SELECT COUNT(*) FROM tracks WHERE album_id = :albumId")
+    int getTracksCountSync(String albumId);
+
+    @Query("DELETE FROM tracks WHERE album_id = :albumId")
+    void deleteForAlbum(String albumId);
+
+    @Query("DELETE FROM tracks")
+    void deleteAll();
+}
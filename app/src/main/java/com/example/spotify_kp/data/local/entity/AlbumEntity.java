@@ -3,9 +3,19 @@ package com.example.spotify_kp.data.local.entity;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "albums")
+import com.example.spotify_kp.utils.ReleaseDate;
+
+@Entity(
+        tableName = "albums",
+        indices = {
+                @Index(name = "index_albums_genre", value = "genre"),
+                @Index(name = "index_albums_year", value = "year"),
+                @Index(name = "index_albums_release_day", value = "release_day")
+        }
+)
 public class AlbumEntity {
     @PrimaryKey
     @NonNull
@@ -18,8 +28,9 @@ public class AlbumEntity {
     @ColumnInfo(name = "artist")
     private String artist;
 
+    // null - год неизвестен
     @ColumnInfo(name = "year")
-    private String year;
+    private Integer year;
 
     @ColumnInfo(name = "genre")
     private String genre;
@@ -30,8 +41,12 @@ public class AlbumEntity {
     @ColumnInfo(name = "total_tracks")
     private int totalTracks;
 
-    @ColumnInfo(name = "release_date")
-    private String releaseDate;
+    // День эпохи + точность (ReleaseDate.PRECISION_*), null - даты нет
+    @ColumnInfo(name = "release_day")
+    private Long releaseDay;
+
+    @ColumnInfo(name = "release_date_precision")
+    private Integer releaseDatePrecision;
 
     @ColumnInfo(name = "spotify_id")
     private String spotifyId;
@@ -51,8 +66,13 @@ public class AlbumEntity {
     public String getArtist() { return artist; }
     public void setArtist(String artist) { this.artist = artist; }
 
-    public String getYear() { return year; }
-    public void setYear(String year) { this.year = year; }
+    public Integer getYear() { return year; }
+    public void setYear(Integer year) { this.year = year; }
+
+    /**
+     * Год для показа ("Unknown", если неизвестен)
+     */
+    public String getYearText() { return year != null ? String.valueOf(year) : "Unknown"; }
 
     public String getGenre() { return genre; }
     public void setGenre(String genre) { this.genre = genre; }
@@ -63,8 +83,18 @@ public class AlbumEntity {
     public int getTotalTracks() { return totalTracks; }
     public void setTotalTracks(int totalTracks) { this.totalTracks = totalTracks; }
 
-    public String getReleaseDate() { return releaseDate; }
-    public void setReleaseDate(String releaseDate) { this.releaseDate = releaseDate; }
+    public Long getReleaseDay() { return releaseDay; }
+    public void setReleaseDay(Long releaseDay) { this.releaseDay = releaseDay; }
+
+    public Integer getReleaseDatePrecision() { return releaseDatePrecision; }
+    public void setReleaseDatePrecision(Integer releaseDatePrecision) {
+        this.releaseDatePrecision = releaseDatePrecision;
+    }
+
+    /**
+     * Дата релиза строкой в исходной точности ("2011-01-01" / "2011-01" / "2011")
+     */
+    public String getReleaseDateText() { return ReleaseDate.format(releaseDay, releaseDatePrecision); }
 
     public String getSpotifyId() { return spotifyId; }
     public void setSpotifyId(String spotifyId) { this.spotifyId = spotifyId; }
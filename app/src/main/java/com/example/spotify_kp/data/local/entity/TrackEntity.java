@@ -0,0 +1,57 @@
+package com.example.spotify_kp.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * Трек альбома. Ключ (album_id, disc_number, track_number) - треки всегда читаются
+ * по альбому, а track_number на каждом диске многодискового альбома начинается с 1.
+ * Внешнего ключа на albums нет намеренно: альбомы пишутся через REPLACE,
+ * и ON DELETE CASCADE стирал бы треки при каждой синхронизации альбома.
+ */
+@Entity(
+        tableName = "tracks",
+        primaryKeys = {"album_id", "disc_number", "track_number"}
+)
+public class TrackEntity {
+    @NonNull
+    @ColumnInfo(name = "album_id")
+    private String albumId;
+
+    @ColumnInfo(name = "disc_number", defaultValue = "1")
+    private int discNumber = 1;
+
+    @ColumnInfo(name = "track_number")
+    private int trackNumber;
+
+    @ColumnInfo(name = "track_id")
+    private String trackId;
+
+    @ColumnInfo(name = "name")
+    private String name;
+
+    @ColumnInfo(name = "duration_ms")
+    private int durationMs;
+
+    public TrackEntity() {}
+
+    @NonNull
+    public String getAlbumId() { return albumId; }
+    public void setAlbumId(@NonNull String albumId) { this.albumId = albumId; }
+
+    public int getDiscNumber() { return discNumber; }
+    public void setDiscNumber(int discNumber) { this.discNumber = discNumber; }
+
+    public int getTrackNumber() { return trackNumber; }
+    public void setTrackNumber(int trackNumber) { this.trackNumber = trackNumber; }
+
+    public String getTrackId() { return trackId; }
+    public void setTrackId(String trackId) { this.trackId = trackId; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public int getDurationMs() { return durationMs; }
+    public void setDurationMs(int durationMs) { this.durationMs = durationMs; }
+}
@@ -0,0 +1,63 @@
+package com.example.spotify_kp.data.local.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Жанры и годы каталога с количеством альбомов (неизменяемый снимок)
+ */
+public class AlbumFacets {
+
+    private final List<FacetCount> genres;
+    private final List<FacetCount> years;
+    private final Map<String, Integer> genreCounts = new HashMap<>();
+    private final Map<String, Integer> yearCounts = new HashMap<>();
+
+    public AlbumFacets(List<FacetCount> rows) {
+        List<FacetCount> genreList = new ArrayList<>();
+        List<FacetCount> yearList = new ArrayList<>();
+
+        for (FacetCount row : rows) {
+            if (FacetCount.FACET_GENRE.equals(row.getFacet())) {
+                genreList.add(row);
+                genreCounts.put(row.getValue(), row.getCount());
+            } else if (FacetCount.FACET_YEAR.equals(row.getFacet())) {
+                yearList.add(row);
+                yearCounts.put(row.getValue(), row.getCount());
+            }
+        }
+
+        genreList.sort((a, b) -> a.getValue().compareTo(b.getValue()));
+        yearList.sort((a, b) -> b.getValue().compareTo(a.getValue()));
+
+        genres = Collections.unmodifiableList(genreList);
+        years = Collections.unmodifiableList(yearList);
+    }
+
+    /**
+     * Жанры по алфавиту
+     */
+    public List<FacetCount> getGenres() { return genres; }
+
+    /**
+     * Годы, новые первыми
+     */
+    public List<FacetCount> getYears() { return years; }
+
+    public int getGenreCount(String genre) {
+        Integer count = genreCounts.get(genre);
+        return count != null ? count : 0;
+    }
+
+    public int getYearCount(String year) {
+        Integer count = yearCounts.get(year);
+        return count != null ? count : 0;
+    }
+
+    public boolean isEmpty() {
+        return genres.isEmpty() && years.isEmpty();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.spotify_kp.data.local.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+import com.example.spotify_kp.data.local.entity.AlbumEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Карточка альбома для списков (каталог, поиск, новинки): только то, что видно в сетке.
+ * Полный {@link AlbumEntity} читается только на экране деталей.
+ */
+public class AlbumListItem {
+
+    // Колонки для SELECT - держать в одном месте с полями ниже
+    public static final String COLUMNS = "id, title, artist, cover_url";
+
+    @NonNull
+    @ColumnInfo(name = "id")
+    private final String id;
+
+    @ColumnInfo(name = "title")
+    private final String title;
+
+    @ColumnInfo(name = "artist")
+    private final String artist;
+
+    @ColumnInfo(name = "cover_url")
+    private final String coverUrl;
+
+    public AlbumListItem(@NonNull String id, String title, String artist, String coverUrl) {
+        this.id = id;
+        this.title = title;
+        this.artist = artist;
+        this.coverUrl = coverUrl;
+    }
+
+    public static AlbumListItem from(AlbumEntity album) {
+        return new AlbumListItem(album.getId(), album.getTitle(), album.getArtist(), album.getCoverUrl());
+    }
+
+    public static List<AlbumListItem> fromEntities(List<AlbumEntity> albums) {
+        List<AlbumListItem> items = new ArrayList<>(albums.size());
+        for (AlbumEntity album : albums) {
+            items.add(from(album));
+        }
+        return items;
+    }
+
+    @NonNull
+    public String getId() { return id; }
+    public String getTitle() { return title; }
+    public String getArtist() { return artist; }
+    public String getCoverUrl() { return coverUrl; }
+}
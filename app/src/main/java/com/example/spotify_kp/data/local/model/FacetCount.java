@@ -0,0 +1,31 @@
+package com.example.spotify_kp.data.local.model;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * Строка агрегированного запроса: значение фасета и число альбомов с ним
+ */
+public class FacetCount {
+    public static final String FACET_GENRE = "genre";
+    public static final String FACET_YEAR = "year";
+
+    @ColumnInfo(name = "facet")
+    private String facet;
+
+    @ColumnInfo(name = "value")
+    private String value;
+
+    @ColumnInfo(name = "count")
+    private int count;
+
+    public FacetCount() {}
+
+    public String getFacet() { return facet; }
+    public void setFacet(String facet) { this.facet = facet; }
+
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+}
@@ -0,0 +1,101 @@
+package com.example.spotify_kp.data.local.query;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Неизменяемый набор условий каталога: текст, жанры, диапазон лет, сортировка.
+ * Годится как ключ кеша - equals/hashCode по всем полям.
+ */
+public final class AlbumFilter {
+
+    /**
+     * Только порядки, которые каталог умеет выбрать (новый - вместе с UI)
+     */
+    public enum SortOrder {
+        NEWEST_ADDED("created_at DESC");
+
+        final String orderBy;
+
+        SortOrder(String orderBy) {
+            this.orderBy = orderBy;
+        }
+    }
+
+    public static final AlbumFilter EMPTY =
+            new AlbumFilter(null, Collections.emptySet(), null, null, SortOrder.NEWEST_ADDED);
+
+    private final String text;
+    private final Set<String> genres;
+    private final Integer minYear;
+    private final Integer maxYear;
+    private final SortOrder sortOrder;
+
+    private AlbumFilter(String text, Set<String> genres, Integer minYear, Integer maxYear,
+                        SortOrder sortOrder) {
+        this.text = text != null && !text.trim().isEmpty() ? text.trim() : null;
+        // TreeSet - одинаковый порядок аргументов SQL и стабильный ключ
+        this.genres = Collections.unmodifiableSet(new TreeSet<>(genres));
+        this.minYear = minYear;
+        this.maxYear = maxYear;
+        this.sortOrder = sortOrder;
+    }
+
+    public AlbumFilter withText(@Nullable String text) {
+        return new AlbumFilter(text, genres, minYear, maxYear, sortOrder);
+    }
+
+    public AlbumFilter withGenres(@NonNull Set<String> genres) {
+        return new AlbumFilter(text, genres, minYear, maxYear, sortOrder);
+    }
+
+    public AlbumFilter withYearRange(@Nullable Integer minYear, @Nullable Integer maxYear) {
+        return new AlbumFilter(text, genres, minYear, maxYear, sortOrder);
+    }
+
+    public AlbumFilter withSortOrder(@NonNull SortOrder sortOrder) {
+        return new AlbumFilter(text, genres, minYear, maxYear, sortOrder);
+    }
+
+    /**
+     * Без условий (сортировка не считается)
+     */
+    public boolean isEmpty() {
+        return text == null && genres.isEmpty() && minYear == null && maxYear == null;
+    }
+
+    @Nullable public String getText() { return text; }
+    @NonNull public Set<String> getGenres() { return genres; }
+    @Nullable public Integer getMinYear() { return minYear; }
+    @Nullable public Integer getMaxYear() { return maxYear; }
+    @NonNull public SortOrder getSortOrder() { return sortOrder; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AlbumFilter)) return false;
+        AlbumFilter that = (AlbumFilter) o;
+        return Objects.equals(text, that.text)
+                && genres.equals(that.genres)
+                && Objects.equals(minYear, that.minYear)
+                && Objects.equals(maxYear, that.maxYear)
+                && sortOrder == that.sortOrder;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(text, genres, minYear, maxYear, sortOrder);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "AlbumFilter{text=" + text + ", genres=" + genres
+                + ", years=" + minYear + ".." + maxYear + ", sort=" + sortOrder + "}";
+    }
+}
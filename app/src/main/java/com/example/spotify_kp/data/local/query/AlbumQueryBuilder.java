@@ -0,0 +1,56 @@
+package com.example.spotify_kp.data.local.query;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import com.example.spotify_kp.data.local.model.AlbumListItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Собирает один SQL-запрос к albums из {@link AlbumFilter} (колонки {@link AlbumListItem}).
+ * Жанры идут через IN по index_albums_genre, годы - диапазоном по index_albums_year.
+ * Текст в SQL не входит: его сопоставляет AlbumSearchIndex (без диакритики,
+ * с опечатками), а результаты пересекаются в CatalogViewModel.
+ */
+public final class AlbumQueryBuilder {
+
+    private AlbumQueryBuilder() {}
+
+    public static SupportSQLiteQuery build(AlbumFilter filter) {
+        StringBuilder sql = new StringBuilder("SELECT " + AlbumListItem.COLUMNS + " FROM albums");
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        if (!filter.getGenres().isEmpty()) {
+            StringBuilder in = new StringBuilder("genre IN (");
+            int i = 0;
+            for (String genre : filter.getGenres()) {
+                in.append(i++ == 0 ? "?" : ", ?");
+                args.add(genre);
+            }
+            conditions.add(in.append(')').toString());
+        }
+
+        // year - INTEGER, альбомы без года (NULL) в диапазон не попадают
+        if (filter.getMinYear() != null && filter.getMaxYear() != null) {
+            conditions.add("year BETWEEN ? AND ?");
+            args.add(filter.getMinYear());
+            args.add(filter.getMaxYear());
+        } else if (filter.getMinYear() != null) {
+            conditions.add("year >= ?");
+            args.add(filter.getMinYear());
+        } else if (filter.getMaxYear() != null) {
+            conditions.add("year <= ?");
+            args.add(filter.getMaxYear());
+        }
+
+        for (int i = 0; i < conditions.size(); i++) {
+            sql.append(i == 0 ? " WHERE " : " AND ").append(conditions.get(i));
+        }
+        sql.append(" ORDER BY ").append(filter.getSortOrder().orderBy);
+
+        return new SimpleSQLiteQuery(sql.toString(), args.toArray());
+    }
+}
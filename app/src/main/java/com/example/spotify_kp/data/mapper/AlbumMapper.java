@@ -1,9 +1,12 @@
 package com.example.spotify_kp.data.mapper;
 
 import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.entity.TrackEntity;
 import com.example.spotify_kp.data.remote.dto.AlbumDto;
 import com.example.spotify_kp.data.remote.dto.ArtistDto;
 import com.example.spotify_kp.data.remote.dto.ImageDto;
+import com.example.spotify_kp.data.remote.dto.TrackItemDto;
+import com.example.spotify_kp.utils.ReleaseDate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,12 +29,13 @@ public class AlbumMapper {
             entity.setArtist("Unknown Artist");
         }
 
-        // Извлекаем год из release_date (2011-01-01 → 2011)
-        if (dto.getReleaseDate() != null && dto.getReleaseDate().length() >= 4) {
-            entity.setYear(dto.getReleaseDate().substring(0, 4));
-        } else {
-            entity.setYear("Unknown");
-        }
+        // release_date (2011-01-01 / 2011-01 / 2011) → день эпохи + точность, год числом
+        Long releaseDay = ReleaseDate.toEpochDay(dto.getReleaseDate());
+        entity.setReleaseDay(releaseDay);
+        entity.setReleaseDatePrecision(releaseDay != null
+                ? ReleaseDate.precisionOf(dto.getReleaseDate())
+                : null);
+        entity.setYear(ReleaseDate.yearOf(releaseDay));
 
         // Извлекаем URL обложки (берём первое изображение)
         if (dto.getImages() != null && !dto.getImages().isEmpty()) {
@@ -41,7 +45,6 @@ public class AlbumMapper {
         }
 
         entity.setTotalTracks(dto.getTotalTracks());
-        entity.setReleaseDate(dto.getReleaseDate());
         entity.setSpotifyId(dto.getId());
         entity.setGenre("Electronic"); // Временно, т.к. genres пустой
         entity.setCreatedAt(System.currentTimeMillis());
@@ -63,4 +66,46 @@ public class AlbumMapper {
         }
         return entities;
     }
-}
\ No newline at end of file
+
+    /**
+     * Треки альбома из tracks.items (если API их вернул)
+     */
+    public static List<TrackEntity> toTrackEntities(AlbumDto dto) {
+        List<TrackEntity> tracks = new ArrayList<>();
+        if (dto == null || dto.getId() == null
+                || dto.getTracks() == null || dto.getTracks().getItems() == null) {
+            return tracks;
+        }
+
+        int position = 0;
+        for (TrackItemDto item : dto.getTracks().getItems()) {
+            position++;
+            if (item == null) {
+                continue;
+            }
+
+            TrackEntity track = new TrackEntity();
+            track.setAlbumId(dto.getId());
+            track.setDiscNumber(item.getDiscNumber() > 0 ? item.getDiscNumber() : 1);
+            // Если track_number не пришёл - берём позицию в списке
+            track.setTrackNumber(item.getTrackNumber() > 0 ? item.getTrackNumber() : position);
+            track.setTrackId(item.getId());
+            track.setName(item.getName());
+            track.setDurationMs(item.getDurationMs());
+            tracks.add(track);
+        }
+        return tracks;
+    }
+
+    public static List<TrackEntity> toTrackEntityList(List<AlbumDto> dtoList) {
+        List<TrackEntity> tracks = new ArrayList<>();
+        if (dtoList == null) {
+            return tracks;
+        }
+
+        for (AlbumDto dto : dtoList) {
+            tracks.addAll(toTrackEntities(dto));
+        }
+        return tracks;
+    }
+}
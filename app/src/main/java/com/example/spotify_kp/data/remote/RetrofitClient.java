@@ -1,5 +1,11 @@
 package com.example.spotify_kp.data.remote;
 
+import android.util.Log;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
@@ -10,9 +16,12 @@ public class RetrofitClient {
     private static final String BASE_URL =
             "https://fb6a2a07-87dc-4665-bb76-70ab974cf747.mock.pstmn.io/";
 
+    private static final String TAG = "RetrofitClient";
+
     private static Retrofit retrofit;
+    private static SpotifyApi api;
 
-    public static Retrofit get() {
+    public static synchronized Retrofit get() {
         if (retrofit == null) {
             // Логирование HTTP запросов/ответов
             HttpLoggingInterceptor logger = new HttpLoggingInterceptor();
@@ -33,7 +42,25 @@ public class RetrofitClient {
         return retrofit;
     }
 
-    public static com.example.spotify_kp.data.remote.SpotifyApi api() {
-        return get().create(com.example.spotify_kp.data.remote.SpotifyApi.class);
+    public static synchronized SpotifyApi api() {
+        // Прокси создаётся один раз - create() разбирает аннотации интерфейса
+        if (api == null) {
+            api = get().create(SpotifyApi.class);
+        }
+        return api;
+    }
+
+    /**
+     * Заранее собирает OkHttp/Retrofit/Gson и резолвит хост API,
+     * чтобы первый запрос не платил за это. Вызывать из фонового потока
+     */
+    public static void warmUp() {
+        api();
+        String host = URI.create(BASE_URL).getHost();
+        try {
+            InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            Log.d(TAG, "📶 DNS warm-up skipped: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
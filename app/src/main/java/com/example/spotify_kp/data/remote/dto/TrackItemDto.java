@@ -6,6 +6,9 @@ public class TrackItemDto {
     private String id;
     private String name;
 
+    @SerializedName("disc_number")
+    private int discNumber;
+
     @SerializedName("track_number")
     private int trackNumber;
 
@@ -20,6 +23,9 @@ public class TrackItemDto {
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
+    public int getDiscNumber() { return discNumber; }
+    public void setDiscNumber(int discNumber) { this.discNumber = discNumber; }
+
     public int getTrackNumber() { return trackNumber; }
     public void setTrackNumber(int trackNumber) { this.trackNumber = trackNumber; }
 
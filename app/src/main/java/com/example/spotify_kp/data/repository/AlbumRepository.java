@@ -1,22 +1,28 @@
 package com.example.spotify_kp.data.repository;
 
 import android.content.Context;
-import android.content.SharedPreferences;
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.example.spotify_kp.data.cache.AlbumMemoryCache;
+import com.example.spotify_kp.data.cache.CachePolicy;
+import com.example.spotify_kp.data.cache.CachePolicyEngine;
 import com.example.spotify_kp.data.remote.RetrofitClient;
 import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.data.local.KeyValueStore;
 import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.model.AlbumListItem;
+import com.example.spotify_kp.data.local.query.AlbumFilter;
+import com.example.spotify_kp.data.local.query.AlbumQueryBuilder;
 import com.example.spotify_kp.data.mapper.AlbumMapper;
 import com.example.spotify_kp.data.remote.dto.AlbumDto;
 import com.example.spotify_kp.data.remote.dto.AlbumResponse;
-import com.example.spotify_kp.data.remote.dto.NewReleasesResponse;
-import com.example.spotify_kp.utils.NetworkUtils;
 import com.example.spotify_kp.utils.Resource;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -26,90 +32,101 @@ import retrofit2.Response;
 
 /**
  * AlbumRepository с полной поддержкой офлайн-режима
- * Стратегия: Cache-First (сначала кеш, потом обновление с сервера)
+ * Стратегия каталога задаётся {@link CachePolicy} (по умолчанию stale-while-revalidate)
  */
 public class AlbumRepository {
     private static final String TAG = "AlbumRepository";
-    private static final String PREF_NAME = "AlbumSyncPrefs";
     private static final String KEY_LAST_SYNC = "last_sync_albums";
-    private static final long SYNC_INTERVAL = TimeUnit.HOURS.toMillis(24); // 24 часа
+
+    // Каталог показывается из кеша сразу; с сервером сверяемся раз в сутки
+    public static final CachePolicy DEFAULT_CACHE_POLICY =
+            CachePolicy.staleWhileRevalidate(TimeUnit.HOURS.toMillis(24));
+
+    // Сколько первых карточек сетки заранее держим в L1 целиком (для экрана деталей)
+    private static final int PREFETCH_ALBUMS = 40;
 
     private Context context;
     private AppDatabase database;
-    private SharedPreferences prefs;
+    private KeyValueStore prefs;
+    private AlbumMemoryCache albumCache;
+    private CachePolicyEngine policyEngine;
+    private volatile CachePolicy cachePolicy = DEFAULT_CACHE_POLICY;
 
     // Список популярных альбомов для загрузки по умолчанию
     private static final String DEFAULT_ALBUM_IDS =
             "382ObEPsp2rxGrnsizN5TX,1A2GTWGtFfWp7KSQTwWOyo,2noRn2Aes5aoNVsU6iWThc";
 
-    public AlbumRepository(Context context) {
+    /**
+     * Создаётся один раз в {@link com.example.spotify_kp.AppContainer}
+     */
+    public AlbumRepository(Context context, AlbumMemoryCache albumCache) {
         this.context = context.getApplicationContext();
         this.database = AppDatabase.getInstance(context);
-        this.prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.prefs = KeyValueStore.sync(context);
+        this.albumCache = albumCache;
+        this.policyEngine = new CachePolicyEngine(context);
     }
 
     /**
-     * ГЛАВНЫЙ МЕТОД - Загрузка альбомов с поддержкой офлайн-режима
+     * ГЛАВНЫЙ МЕТОД - Загрузка альбомов с поддержкой офлайн-режима.
+     * Кеш показывается сразу (с возрастом), сервер - только если кеш устарел
      */
-    public LiveData<Resource<List<AlbumEntity>>> loadAlbums() {
-        MutableLiveData<Resource<List<AlbumEntity>>> result = new MutableLiveData<>();
-        result.setValue(Resource.loading(null));
-
-        // 1. Загружаем из кеша (СИНХРОННО в фоновом потоке)
-        new Thread(() -> {
-            List<AlbumEntity> cachedAlbums = database.albumDao().getAllAlbumsSync();
+    public LiveData<Resource<List<AlbumListItem>>> loadAlbums() {
+        return policyEngine.load("albums", cachePolicy, albumsSource);
+    }
 
-            if (cachedAlbums != null && !cachedAlbums.isEmpty()) {
-                // Есть кеш - показываем сразу
-                result.postValue(Resource.success(cachedAlbums));
-                Log.d(TAG, "✅ Loaded from cache: " + cachedAlbums.size() + " albums");
-            } else {
-                // Нет кеша
-                if (!NetworkUtils.isNetworkAvailable(context)) {
-                    result.postValue(Resource.error("No data available. Please connect to internet.", null));
-                    Log.e(TAG, "❌ No cache and no internet");
-                    return;
-                }
-                Log.d(TAG, "⚠️ Cache is empty, loading from API...");
-            }
+    /**
+     * Принудительное обновление (Pull-to-Refresh): сеть, без сети - кеш
+     */
+    public LiveData<Resource<List<AlbumListItem>>> forceRefresh() {
+        return policyEngine.load("albums (refresh)", CachePolicy.networkFirst(), albumsSource);
+    }
 
-            // 2. Проверяем нужна ли синхронизация
-            if (NetworkUtils.isNetworkAvailable(context) && needsSync()) {
-                syncFromServer(result);
-            } else {
-                Log.d(TAG, "📶 Offline mode or data is fresh");
-            }
-        }).start();
+    public CachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
 
-        return result;
+    public void setCachePolicy(CachePolicy cachePolicy) {
+        this.cachePolicy = cachePolicy;
     }
 
     /**
-     * Принудительное обновление (Pull-to-Refresh)
+     * Каталог: Room (только колонки карточки) + batch /albums
      */
-    public LiveData<Resource<List<AlbumEntity>>> forceRefresh() {
-        MutableLiveData<Resource<List<AlbumEntity>>> result = new MutableLiveData<>();
-        result.setValue(Resource.loading(null));
+    private final CachePolicyEngine.Source<List<AlbumListItem>> albumsSource =
+            new CachePolicyEngine.Source<List<AlbumListItem>>() {
+                @Override
+                public List<AlbumListItem> loadFromCache() {
+                    // Полный AlbumEntity читается на экране деталей
+                    long start = SystemClock.elapsedRealtime();
+                    List<AlbumListItem> cachedAlbums = database.albumDao().getAllAlbumListItemsSync();
+                    if (cachedAlbums == null || cachedAlbums.isEmpty()) {
+                        // Первый запуск: каталога нет, пока не ответит сеть (seed-БД не сделана -
+                        // нет снимка ответа API, из которого её собрать)
+                        Log.d(TAG, "⚠️ Cache is empty");
+                        return null;
+                    }
+                    Log.d(TAG, "✅ Loaded from cache: " + cachedAlbums.size() + " albums in "
+                            + (SystemClock.elapsedRealtime() - start) + " ms");
+                    prefetchDetails(cachedAlbums);
+                    return cachedAlbums;
+                }
 
-        if (!NetworkUtils.isNetworkAvailable(context)) {
-            // Нет интернета - показываем кеш
-            new Thread(() -> {
-                List<AlbumEntity> cachedAlbums = database.albumDao().getAllAlbumsSync();
-                result.postValue(Resource.success(cachedAlbums));
-                Log.d(TAG, "📶 Offline - showing cached data");
-            }).start();
-            return result;
-        }
+                @Override
+                public long lastFetchedAt() {
+                    return getLastSyncTime();
+                }
 
-        // Есть интернет - принудительная загрузка
-        syncFromServer(result);
-        return result;
-    }
+                @Override
+                public void fetchFromNetwork(CachePolicyEngine.FetchCallback<List<AlbumListItem>> callback) {
+                    syncFromServer(callback);
+                }
+            };
 
     /**
      * Синхронизация с сервером
      */
-    private void syncFromServer(MutableLiveData<Resource<List<AlbumEntity>>> result) {
+    private void syncFromServer(CachePolicyEngine.FetchCallback<List<AlbumListItem>> callback) {
         Log.d(TAG, "🔄 Syncing from server...");
 
         RetrofitClient.api().getAlbums(DEFAULT_ALBUM_IDS).enqueue(new Callback<AlbumResponse>() {
@@ -121,47 +138,64 @@ public class AlbumRepository {
                     if (albumDtos != null && !albumDtos.isEmpty()) {
                         List<AlbumEntity> albums = AlbumMapper.toEntityList(albumDtos);
 
-                        new Thread(() -> {
+                        AppDatabase.databaseExecutor.execute(() -> {
+                            // В L1 не кладём: своё же изменение albums сделает их устаревшими
                             database.albumDao().insertAll(albums);
+                            TrackRepository.saveTracksFrom(database, albumDtos);
 
                             // Обновляем время синхронизации
                             prefs.edit().putLong(KEY_LAST_SYNC, System.currentTimeMillis()).apply();
 
-                            result.postValue(Resource.success(albums));
-                            Log.d(TAG, "✅ Synced from server: " + albums.size() + " albums");
-                        }).start();
+                            // Свежие альбомы влиты в кеш - показываем весь кеш
+                            List<AlbumListItem> merged = database.albumDao().getAllAlbumListItemsSync();
+                            callback.onFetched(merged);
+                            Log.d(TAG, "✅ Synced from server: " + albums.size() + " albums, "
+                                    + merged.size() + " in cache");
+                        });
                     } else {
-                        result.postValue(Resource.error("No albums found", null));
+                        callback.onFailed("No albums found");
                     }
                 } else {
-                    result.postValue(Resource.error("Failed to load albums", null));
-                    Log.e(TAG, "❌ API error: " + response.code());
+                    callback.onFailed("Failed to load albums (" + response.code() + ")");
                 }
             }
 
             @Override
             public void onFailure(Call<AlbumResponse> call, Throwable t) {
-                // При ошибке показываем кеш
-                new Thread(() -> {
-                    List<AlbumEntity> cachedAlbums = database.albumDao().getAllAlbumsSync();
-                    if (!cachedAlbums.isEmpty()) {
-                        result.postValue(Resource.success(cachedAlbums));
-                    } else {
-                        result.postValue(Resource.error("Network error: " + t.getMessage(), null));
-                    }
-                }).start();
-                Log.e(TAG, "❌ Network error: " + t.getMessage());
+                // Кеш (если есть) показывает движок политики
+                callback.onFailed("Network error: " + t.getMessage());
             }
         });
     }
 
     /**
-     * Проверяет нужна ли синхронизация
+     * Прогрев на splash-экране: первая страница каталога - в L1.
+     * Вызывать из фонового потока
+     */
+    public void warmUpSync() {
+        prefetchIds(database.albumDao().getRecentAlbumIdsSync(PREFETCH_ALBUMS));
+    }
+
+    /**
+     * Первые карточки сетки подгружаются в L1 одним запросом,
+     * чтобы экран деталей открывался из памяти. Вызывать из фонового потока
      */
-    private boolean needsSync() {
-        long lastSync = prefs.getLong(KEY_LAST_SYNC, 0);
-        long currentTime = System.currentTimeMillis();
-        return (currentTime - lastSync) > SYNC_INTERVAL;
+    private void prefetchDetails(List<AlbumListItem> items) {
+        List<String> ids = new ArrayList<>(Math.min(items.size(), PREFETCH_ALBUMS));
+        for (int i = 0; i < items.size() && i < PREFETCH_ALBUMS; i++) {
+            ids.add(items.get(i).getId());
+        }
+
+        prefetchIds(ids);
+    }
+
+    private void prefetchIds(List<String> ids) {
+        long generation = albumCache.currentGeneration();
+        List<String> missing = albumCache.missingIds(ids);
+        if (!missing.isEmpty()
+                && albumCache.putAll(database.albumDao().getAlbumsByIdsSync(missing), generation)) {
+            Log.d(TAG, "💾 Prefetched " + missing.size() + " albums into memory");
+        }
     }
 
     /**
@@ -169,131 +203,39 @@ public class AlbumRepository {
      */
     public LiveData<Resource<AlbumEntity>> getAlbumDetailsFromDb(String albumId) {
         MutableLiveData<Resource<AlbumEntity>> result = new MutableLiveData<>();
+
+        // L1: альбом уже в памяти - без запроса к БД
+        AlbumEntity cached = albumCache.get(albumId);
+        if (cached != null) {
+            result.setValue(Resource.success(cached));
+            Log.d(TAG, "💾 Album from memory: " + cached.getTitle());
+            return result;
+        }
+
         result.setValue(Resource.loading(null));
 
-        new Thread(() -> {
+        AppDatabase.databaseExecutor.execute(() -> {
+            long generation = albumCache.currentGeneration();
             AlbumEntity album = database.albumDao().getAlbumByIdSync(albumId);
             if (album != null) {
+                albumCache.put(album, generation);
                 result.postValue(Resource.success(album));
                 Log.d(TAG, "✅ Album loaded from DB: " + album.getTitle());
             } else {
                 result.postValue(Resource.error("Album not found", null));
                 Log.e(TAG, "❌ Album not found in DB: " + albumId);
             }
-        }).start();
-
-        return result;
-    }
-
-    /**
-     * Загрузка новых релизов
-     */
-    public LiveData<Resource<List<AlbumEntity>>> loadNewReleases(int limit, int offset) {
-        MutableLiveData<Resource<List<AlbumEntity>>> result = new MutableLiveData<>();
-        result.setValue(Resource.loading(null));
-
-        // Сначала показываем кеш
-        new Thread(() -> {
-            List<AlbumEntity> cachedAlbums = database.albumDao().getAllAlbumsSync();
-            if (!cachedAlbums.isEmpty()) {
-                result.postValue(Resource.success(cachedAlbums));
-                Log.d(TAG, "💾 Showing cached albums");
-            }
-        }).start();
-
-        // Если есть интернет - загружаем новое
-        if (!NetworkUtils.isNetworkAvailable(context)) {
-            Log.d(TAG, "📶 Offline - showing cache only");
-            return result;
-        }
-
-        RetrofitClient.api().getNewReleases(limit, offset)
-                .enqueue(new Callback<NewReleasesResponse>() {
-                    @Override
-                    public void onResponse(Call<NewReleasesResponse> call,
-                                           Response<NewReleasesResponse> response) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            NewReleasesResponse body = response.body();
-
-                            if (body.getAlbums() != null &&
-                                    body.getAlbums().getItems() != null) {
-
-                                List<AlbumDto> albumDtos = body.getAlbums().getItems();
-                                List<AlbumEntity> albums = AlbumMapper.toEntityList(albumDtos);
-
-                                new Thread(() -> {
-                                    database.albumDao().insertAll(albums);
-                                    result.postValue(Resource.success(albums));
-                                    Log.d(TAG, "✅ New releases loaded: " + albums.size());
-                                }).start();
-                            }
-                        } else {
-                            Log.e(TAG, "❌ API error: " + response.code());
-                        }
-                    }
-
-                    @Override
-                    public void onFailure(Call<NewReleasesResponse> call, Throwable t) {
-                        Log.e(TAG, "❌ Network error: " + t.getMessage());
-                    }
-                });
-
-        return result;
-    }
-
-    /**
-     * Поиск альбомов (офлайн)
-     */
-    public LiveData<Resource<List<AlbumEntity>>> searchAlbums(String query) {
-        MutableLiveData<Resource<List<AlbumEntity>>> result = new MutableLiveData<>();
-        result.setValue(Resource.loading(null));
-
-        new Thread(() -> {
-            List<AlbumEntity> albums = database.albumDao().searchAlbumsSync(query);
-            result.postValue(Resource.success(albums));
-            Log.d(TAG, "🔍 Search results: " + albums.size() + " albums");
-        }).start();
-
-        return result;
-    }
-
-    /**
-     * Фильтрация по жанру (офлайн)
-     */
-    public LiveData<Resource<List<AlbumEntity>>> getAlbumsByGenre(String genre) {
-        MutableLiveData<Resource<List<AlbumEntity>>> result = new MutableLiveData<>();
-        result.setValue(Resource.loading(null));
-
-        new Thread(() -> {
-            List<AlbumEntity> albums = database.albumDao().getAlbumsByGenreSync(genre);
-            result.postValue(Resource.success(albums));
-            Log.d(TAG, "🎵 Genre filter: " + albums.size() + " albums");
-        }).start();
-
-        return result;
-    }
-
-    /**
-     * Фильтрация по году (офлайн)
-     */
-    public LiveData<Resource<List<AlbumEntity>>> getAlbumsByYear(String year) {
-        MutableLiveData<Resource<List<AlbumEntity>>> result = new MutableLiveData<>();
-        result.setValue(Resource.loading(null));
-
-        new Thread(() -> {
-            List<AlbumEntity> albums = database.albumDao().getAlbumsByYearSync(year);
-            result.postValue(Resource.success(albums));
-            Log.d(TAG, "📅 Year filter: " + albums.size() + " albums");
-        }).start();
+        });
 
         return result;
     }
 
     /**
-     * Получение всех альбомов из Room
+     * Составной фильтр (текст + жанры + годы + сортировка) одним запросом.
+     * Вызывать из фонового потока
      */
-    public LiveData<List<AlbumEntity>> getAllAlbumsFromDb() {
-        return database.albumDao().getAllAlbums();
+    public List<AlbumListItem> filterAlbumsSync(AlbumFilter filter) {
+        return database.albumDao().filterAlbumListItemsSync(AlbumQueryBuilder.build(filter));
     }
 
     /**
@@ -120,7 +120,7 @@ public class AuthRepository {
 
     // Сохранение пользователя в Room
     private void saveUserToDatabase(User user, String email) {
-        new Thread(() -> {
+        AppDatabase.databaseExecutor.execute(() -> {
             UserEntity entity = new UserEntity();
             entity.setId(user.getId());
             entity.setDisplayName(user.getDisplayName());
@@ -131,16 +131,16 @@ public class AuthRepository {
 
             database.userDao().insert(entity);
             Log.d(TAG, "User saved to database");
-        }).start();
+        });
     }
 
     // Logout
     public void logout() {
         prefsManager.logout();
-        new Thread(() -> {
+        AppDatabase.databaseExecutor.execute(() -> {
             database.userDao().deleteAll();
             Log.d(TAG, "User logged out");
-        }).start();
+        });
     }
 
     // Проверка авторизации
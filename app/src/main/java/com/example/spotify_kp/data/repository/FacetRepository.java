@@ -0,0 +1,90 @@
+package com.example.spotify_kp.data.repository;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.room.InvalidationTracker;
+
+import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.data.local.model.AlbumFacets;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Фасеты каталога (жанры / годы с количеством) для фильтров.
+ * Считаются одним GROUP BY запросом и кешируются, пока таблица albums не изменится.
+ * Изменение без наблюдателей только помечает кеш устаревшим - пересчёт, когда
+ * кто-то снова начнёт смотреть (FacetsLiveData.onActive).
+ */
+public class FacetRepository {
+    private static final String TAG = "FacetRepository";
+
+    private static FacetRepository instance;
+
+    private final AppDatabase database;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final FacetsLiveData facets = new FacetsLiveData();
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    private FacetRepository(Context context) {
+        database = AppDatabase.getInstance(context);
+
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("albums") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                stale.set(true);
+                // Пересчитываем сразу только если кто-то смотрит на фасеты
+                if (facets.hasActiveObservers()) {
+                    refreshIfStale();
+                }
+            }
+        });
+    }
+
+    public static synchronized FacetRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new FacetRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Последние посчитанные фасеты; пересчёт в фоне, когда наблюдатель
+     * становится активным, а кеш устарел
+     */
+    public LiveData<AlbumFacets> getFacets() {
+        return facets;
+    }
+
+    private void refreshIfStale() {
+        if (!stale.compareAndSet(true, false)) {
+            return;
+        }
+
+        executor.execute(() -> {
+            long start = SystemClock.elapsedRealtime();
+            AlbumFacets result = new AlbumFacets(database.albumDao().getFacetCounts());
+            facets.postFacets(result);
+            Log.d(TAG, "📊 Facets: " + result.getGenres().size() + " genres, "
+                    + result.getYears().size() + " years in "
+                    + (SystemClock.elapsedRealtime() - start) + " ms");
+        });
+    }
+
+    private class FacetsLiveData extends LiveData<AlbumFacets> {
+        @Override
+        protected void onActive() {
+            refreshIfStale();
+        }
+
+        void postFacets(AlbumFacets value) {
+            postValue(value);
+        }
+    }
+}
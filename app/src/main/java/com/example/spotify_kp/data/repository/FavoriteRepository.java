@@ -3,15 +3,22 @@ package com.example.spotify_kp.data.repository;
 import android.content.Context;
 import android.util.Log;
 
+import com.example.spotify_kp.data.cache.CachePolicy;
 import com.example.spotify_kp.data.local.AppDatabase;
 import com.example.spotify_kp.data.local.entity.FavoriteEntity;
 import com.example.spotify_kp.utils.SharedPrefsManager;
 
 import java.util.List;
 
+/**
+ * Избранное пользователя. Живёт только в Room, сервера у него нет
+ */
 public class FavoriteRepository {
     private static final String TAG = "FavoriteRepository";
 
+    // Источник истины - локальная БД, в сеть не ходим
+    public static final CachePolicy CACHE_POLICY = CachePolicy.cacheOnly();
+
     private AppDatabase database;
     private SharedPrefsManager prefsManager;
 
@@ -22,6 +29,10 @@ public class FavoriteRepository {
         Log.d(TAG, "✅ FavoriteRepository created for user: " + prefsManager.getUserId());
     }
 
+    public CachePolicy getCachePolicy() {
+        return CACHE_POLICY;
+    }
+
     // Добавить в избранное - СИНХРОННО через DAO
     public boolean addToFavoritesSync(String albumId, String comment, float rating) {
         try {
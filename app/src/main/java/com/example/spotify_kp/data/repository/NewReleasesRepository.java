@@ -4,108 +4,142 @@ import android.content.Context;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 
+import com.example.spotify_kp.data.cache.CachePolicy;
+import com.example.spotify_kp.data.cache.CachePolicyEngine;
 import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.data.local.KeyValueStore;
 import com.example.spotify_kp.data.local.entity.AlbumEntity;
 import com.example.spotify_kp.data.mapper.AlbumMapper;
 import com.example.spotify_kp.data.remote.RetrofitClient;
 import com.example.spotify_kp.data.remote.dto.AlbumDto;
 import com.example.spotify_kp.data.remote.dto.NewReleasesResponse;
-import com.example.spotify_kp.utils.NetworkUtils;
 import com.example.spotify_kp.utils.Resource;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
+/**
+ * Новинки. Стратегия задаётся {@link CachePolicy} (по умолчанию cache-then-network)
+ */
 public class NewReleasesRepository {
     private static final String TAG = "NewReleasesRepository";
+    private static final String KEY_LAST_SYNC = "last_sync_new_releases";
+
+    // Новинки меняются часто: кеш показываем сразу, но с сервером сверяемся всегда
+    public static final CachePolicy DEFAULT_CACHE_POLICY = CachePolicy.cacheThenNetwork();
+    // Следующие страницы: весь кеш уже на экране - повторная выдача из Room дала бы лишний diff
+    public static final CachePolicy PAGE_CACHE_POLICY = CachePolicy.networkFirst();
 
     private AppDatabase database;
-    private Context context;
+    private KeyValueStore prefs;
+    private CachePolicyEngine policyEngine;
+    private volatile CachePolicy cachePolicy = DEFAULT_CACHE_POLICY;
 
+    /**
+     * Создаётся один раз в {@link com.example.spotify_kp.AppContainer}
+     */
     public NewReleasesRepository(Context context) {
-        this.context = context.getApplicationContext();
         this.database = AppDatabase.getInstance(context);
+        this.prefs = KeyValueStore.sync(context);
+        this.policyEngine = new CachePolicyEngine(context);
     }
 
     /**
-     * Загрузка новинок из API (БЕЗ дубликатов)
+     * Загрузка новинок: кеш (все альбомы из Room) + страница API.
+     * Дубликаты убирает Room (REPLACE по id). Политика репозитория - только для
+     * первой страницы, остальные идут в сеть (PAGE_CACHE_POLICY)
      */
     public LiveData<Resource<List<AlbumEntity>>> loadNewReleases(int limit, int offset) {
-        MutableLiveData<Resource<List<AlbumEntity>>> result = new MutableLiveData<>();
-        result.setValue(Resource.loading(null));
-
-        // Сначала показываем что есть в кеше
-        new Thread(() -> {
-            List<AlbumEntity> cachedAlbums = database.albumDao().getAllAlbumsSync();
-            if (!cachedAlbums.isEmpty()) {
-                result.postValue(Resource.success(cachedAlbums));
+        return policyEngine.load("new releases @" + offset,
+                offset > 0 ? PAGE_CACHE_POLICY : cachePolicy,
+                releasesSource(limit, offset));
+    }
+
+    /**
+     * Загрузка следующей страницы (pagination)
+     */
+    public LiveData<Resource<List<AlbumEntity>>> loadMoreReleases(int offset) {
+        return loadNewReleases(10, offset);
+    }
+
+    public CachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+
+    public void setCachePolicy(CachePolicy cachePolicy) {
+        this.cachePolicy = cachePolicy;
+    }
+
+    /**
+     * Кеш - все альбомы из Room, сеть - страница getNewReleases
+     */
+    private CachePolicyEngine.Source<List<AlbumEntity>> releasesSource(int limit, int offset) {
+        return new CachePolicyEngine.Source<List<AlbumEntity>>() {
+            @Override
+            public List<AlbumEntity> loadFromCache() {
+                List<AlbumEntity> cachedAlbums = database.albumDao().getAllAlbumsSync();
+                if (cachedAlbums.isEmpty()) {
+                    return null;
+                }
                 Log.d(TAG, "💾 Showing cached: " + cachedAlbums.size());
+                return cachedAlbums;
             }
-        }).start();
 
-        // Если есть интернет - загружаем новое
-        if (!NetworkUtils.isNetworkAvailable(context)) {
-            Log.d(TAG, "📶 Offline - showing cache only");
-            return result;
-        }
+            @Override
+            public long lastFetchedAt() {
+                return prefs.getLong(KEY_LAST_SYNC, 0);
+            }
 
+            @Override
+            public void fetchFromNetwork(CachePolicyEngine.FetchCallback<List<AlbumEntity>> callback) {
+                fetchPage(limit, offset, callback);
+            }
+        };
+    }
+
+    private void fetchPage(int limit, int offset,
+                           CachePolicyEngine.FetchCallback<List<AlbumEntity>> callback) {
         RetrofitClient.api().getNewReleases(limit, offset)
                 .enqueue(new Callback<NewReleasesResponse>() {
                     @Override
                     public void onResponse(Call<NewReleasesResponse> call,
                                            Response<NewReleasesResponse> response) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            NewReleasesResponse body = response.body();
-
-                            if (body.getAlbums() != null && body.getAlbums().getItems() != null) {
-                                List<AlbumDto> albumDtos = body.getAlbums().getItems();
-                                List<AlbumEntity> newAlbums = AlbumMapper.toEntityList(albumDtos);
-
-                                new Thread(() -> {
-                                    // ✅ ИСПРАВЛЕНИЕ: Просто вставляем (REPLACE strategy)
-                                    // Room сам обработает дубликаты благодаря OnConflictStrategy.REPLACE
-                                    database.albumDao().insertAll(newAlbums);
-
-                                    // Загружаем все уникальные альбомы из БД
-                                    List<AlbumEntity> allAlbums = database.albumDao().getAllAlbumsSync();
-
-                                    result.postValue(Resource.success(allAlbums));
-                                    Log.d(TAG, "✅ New releases loaded: " + newAlbums.size() +
-                                            ", Total unique: " + allAlbums.size());
-                                }).start();
-                            }
-                        } else {
-                            Log.e(TAG, "❌ API error: " + response.code());
+                        if (!response.isSuccessful() || response.body() == null) {
+                            callback.onFailed("API error: " + response.code());
+                            return;
                         }
+
+                        NewReleasesResponse body = response.body();
+                        if (body.getAlbums() == null || body.getAlbums().getItems() == null) {
+                            callback.onFailed("No new releases found");
+                            return;
+                        }
+
+                        List<AlbumDto> albumDtos = body.getAlbums().getItems();
+                        List<AlbumEntity> newAlbums = AlbumMapper.toEntityList(albumDtos);
+
+                        AppDatabase.databaseExecutor.execute(() -> {
+                            // Room сам обработает дубликаты благодаря OnConflictStrategy.REPLACE
+                            database.albumDao().insertAll(newAlbums);
+                            prefs.edit().putLong(KEY_LAST_SYNC, System.currentTimeMillis()).apply();
+
+                            // Загружаем все уникальные альбомы из БД
+                            List<AlbumEntity> allAlbums = database.albumDao().getAllAlbumsSync();
+                            callback.onFetched(allAlbums);
+                            Log.d(TAG, "✅ New releases loaded: " + newAlbums.size() +
+                                    ", Total unique: " + allAlbums.size());
+                        });
                     }
 
                     @Override
                     public void onFailure(Call<NewReleasesResponse> call, Throwable t) {
-                        Log.e(TAG, "❌ Network error: " + t.getMessage());
-
-                        // При ошибке показываем кеш
-                        new Thread(() -> {
-                            List<AlbumEntity> cachedAlbums = database.albumDao().getAllAlbumsSync();
-                            result.postValue(Resource.success(cachedAlbums));
-                        }).start();
+                        // Кеш (если есть) показывает движок политики
+                        callback.onFailed("Network error: " + t.getMessage());
                     }
                 });
-
-        return result;
-    }
-
-    /**
-     * Загрузка следующей страницы (pagination)
-     */
-    public LiveData<Resource<List<AlbumEntity>>> loadMoreReleases(int offset) {
-        return loadNewReleases(10, offset);
     }
-}
\ No newline at end of file
+}
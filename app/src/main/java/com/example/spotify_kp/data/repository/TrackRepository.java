@@ -0,0 +1,145 @@
+package com.example.spotify_kp.data.repository;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.spotify_kp.data.cache.CachePolicy;
+import com.example.spotify_kp.data.cache.CachePolicyEngine;
+import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.data.local.entity.TrackEntity;
+import com.example.spotify_kp.data.mapper.AlbumMapper;
+import com.example.spotify_kp.data.remote.RetrofitClient;
+import com.example.spotify_kp.data.remote.dto.AlbumDto;
+import com.example.spotify_kp.utils.Resource;
+
+import java.util.Collections;
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Треки альбомов.
+ * Порядок: память (последние альбомы) → Room → API getAlbumById (один раз на альбом).
+ * Room и API выбираются по {@link CachePolicy}.
+ */
+public class TrackRepository {
+    private static final String TAG = "TrackRepository";
+
+    // Сколько альбомов держим в памяти целиком
+    public static final int MAX_ALBUMS_IN_MEMORY = 20;
+
+    // Треки альбома не меняются: из кеша без срока годности, в сеть - только если их нет
+    public static final CachePolicy DEFAULT_CACHE_POLICY = CachePolicy.cacheFirst();
+
+    // Треки последних открытых альбомов (создаёт и чистит AppContainer)
+    private final LruCache<String, List<TrackEntity>> memoryCache;
+    private AppDatabase database;
+    private CachePolicyEngine policyEngine;
+    private volatile CachePolicy cachePolicy = DEFAULT_CACHE_POLICY;
+
+    /**
+     * Создаётся один раз в {@link com.example.spotify_kp.AppContainer}
+     */
+    public TrackRepository(Context context, LruCache<String, List<TrackEntity>> memoryCache) {
+        this.memoryCache = memoryCache;
+        this.database = AppDatabase.getInstance(context);
+        this.policyEngine = new CachePolicyEngine(context);
+    }
+
+    /**
+     * Треки альбома: память, затем по политике - Room и API
+     */
+    public LiveData<Resource<List<TrackEntity>>> getTracksForAlbum(String albumId) {
+        List<TrackEntity> cached = memoryCache.get(albumId);
+        if (cached != null) {
+            MutableLiveData<Resource<List<TrackEntity>>> result = new MutableLiveData<>();
+            result.setValue(Resource.success(cached));
+            Log.d(TAG, "💾 Tracks from memory: " + albumId);
+            return result;
+        }
+
+        return policyEngine.load("tracks " + albumId, cachePolicy,
+                new CachePolicyEngine.Source<List<TrackEntity>>() {
+                    @Override
+                    public List<TrackEntity> loadFromCache() {
+                        List<TrackEntity> tracks = database.trackDao().getTracksForAlbumSync(albumId);
+                        if (tracks.isEmpty()) {
+                            return null;
+                        }
+                        putInMemory(albumId, tracks);
+                        Log.d(TAG, "💿 Tracks from DB: " + tracks.size());
+                        return tracks;
+                    }
+
+                    @Override
+                    public long lastFetchedAt() {
+                        // Время загрузки треков не храним - CACHE_FIRST возраст не проверяет
+                        return 0;
+                    }
+
+                    @Override
+                    public void fetchFromNetwork(CachePolicyEngine.FetchCallback<List<TrackEntity>> callback) {
+                        fetchFromServer(albumId, callback);
+                    }
+                });
+    }
+
+    public CachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+
+    public void setCachePolicy(CachePolicy cachePolicy) {
+        this.cachePolicy = cachePolicy;
+    }
+
+    /**
+     * Сохраняет треки, пришедшие вместе с альбомами (batch /albums)
+     */
+    public static void saveTracksFrom(AppDatabase database, List<AlbumDto> albumDtos) {
+        List<TrackEntity> tracks = AlbumMapper.toTrackEntityList(albumDtos);
+        if (!tracks.isEmpty()) {
+            database.trackDao().insertAll(tracks);
+            Log.d(TAG, "✅ Saved " + tracks.size() + " tracks from album response");
+        }
+    }
+
+    private void fetchFromServer(String albumId,
+                                 CachePolicyEngine.FetchCallback<List<TrackEntity>> callback) {
+        Log.d(TAG, "🔄 Loading tracks from API: " + albumId);
+
+        RetrofitClient.api().getAlbumById(albumId).enqueue(new Callback<AlbumDto>() {
+            @Override
+            public void onResponse(Call<AlbumDto> call, Response<AlbumDto> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    List<TrackEntity> tracks = AlbumMapper.toTrackEntities(response.body());
+
+                    AppDatabase.databaseExecutor.execute(() -> {
+                        if (!tracks.isEmpty()) {
+                            database.trackDao().insertAll(tracks);
+                            putInMemory(albumId, tracks);
+                        }
+                        callback.onFetched(tracks);
+                        Log.d(TAG, "✅ Tracks loaded from API: " + tracks.size());
+                    });
+                } else {
+                    callback.onFailed("Failed to load tracks (" + response.code() + ")");
+                }
+            }
+
+            @Override
+            public void onFailure(Call<AlbumDto> call, Throwable t) {
+                callback.onFailed("Network error: " + t.getMessage());
+            }
+        });
+    }
+
+    private void putInMemory(String albumId, List<TrackEntity> tracks) {
+        memoryCache.put(albumId, Collections.unmodifiableList(tracks));
+    }
+}
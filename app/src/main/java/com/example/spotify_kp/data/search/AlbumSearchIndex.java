@@ -0,0 +1,537 @@
+package com.example.spotify_kp.data.search;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.example.spotify_kp.AppContainer;
+import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.data.local.model.AlbumListItem;
+import com.example.spotify_kp.memory.MemoryPressureCoordinator;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory триграммный индекс по названию и артисту всех альбомов из кеша.
+ *
+ * Постинг-листы - отсортированные int-массивы номеров документов.
+ * Индекс обновляется инкрементально, когда Room сообщает об изменении
+ * таблицы albums: добавляются новые альбомы, изменённые переиндексируются,
+ * удалённые помечаются как удалённые (и периодически индекс уплотняется).
+ *
+ * Поддерживает поиск по подстроке, по началу слова и с опечатками.
+ */
+public class AlbumSearchIndex {
+
+    private static final String TAG = "AlbumSearchIndex";
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    // Доля совпавших триграмм, при которой альбом считается похожим (поиск с опечатками)
+    private static final float FUZZY_MIN_SIMILARITY = 0.5f;
+
+    // Результаты matchSubstring
+    public static final byte NOT_INDEXED = 0;
+    public static final byte NO_MATCH = 1;
+    public static final byte MATCH = 2;
+
+    private static AlbumSearchIndex instance;
+
+    private final AppDatabase database;
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // ===== Данные индекса (под lock) =====
+    private final List<AlbumListItem> docs = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private final Map<String, Integer> docByAlbumId = new HashMap<>();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private boolean[] deleted = new boolean[16];
+    private int deletedCount = 0;
+    private volatile boolean ready = false;
+    // Индекс выброшен при нехватке памяти - пересоберётся при следующем обращении
+    private volatile boolean released = false;
+
+    private AlbumSearchIndex(Context context) {
+        this(AppDatabase.getInstance(context), AppContainer.from(context).getMemoryPressure());
+    }
+
+    /**
+     * Индекс над произвольной БД (бенчмарки гоняют его на in-memory базе)
+     */
+    AlbumSearchIndex(AppDatabase database, MemoryPressureCoordinator memoryPressure) {
+        this.database = database;
+
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("albums") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                scheduleSync();
+            }
+        });
+
+        memoryPressure.register(stage -> {
+            if (stage.isAtLeast(MemoryPressureCoordinator.Stage.CRITICAL)) {
+                trimMemory(true);
+            } else if (stage.isAtLeast(MemoryPressureCoordinator.Stage.CACHES)) {
+                trimMemory(false);
+            }
+        });
+
+        scheduleSync();
+    }
+
+    public static synchronized AlbumSearchIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new AlbumSearchIndex(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public boolean isReady() {
+        if (released) {
+            released = false;
+            scheduleSync();
+        }
+        return ready;
+    }
+
+    /**
+     * Дождаться первой сборки (или пересборки после release). Только с фонового потока
+     * @return false, если сборка не удалась
+     */
+    public boolean awaitReady() throws InterruptedException {
+        if (isReady()) {
+            return true;
+        }
+        try {
+            // Сборка уже в очереди indexExecutor - пустая задача выполнится после неё
+            indexExecutor.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "❌ Index wait failed: " + e.getMessage());
+        }
+        return ready;
+    }
+
+    // ===== ПОИСК =====
+
+    /**
+     * Альбомы, у которых название или артист содержат query
+     */
+    public List<AlbumListItem> searchSubstring(String query) {
+        String q = normalize(query);
+        lock.readLock().lock();
+        try {
+            List<AlbumListItem> result = new ArrayList<>();
+            for (int doc : exactCandidates(q)) {
+                if (keys.get(doc).contains(q)) {
+                    result.add(docs.get(doc));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Альбомы, где какое-то слово названия или артиста начинается с query
+     */
+    public List<AlbumListItem> searchPrefix(String query) {
+        String q = normalize(query);
+        lock.readLock().lock();
+        try {
+            List<AlbumListItem> result = new ArrayList<>();
+            for (int doc : exactCandidates(q)) {
+                if (hasWordStartingWith(keys.get(doc), q)) {
+                    result.add(docs.get(doc));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Поиск с опечатками: альбомы с наибольшей долей общих триграмм, лучшие первыми
+     */
+    public List<AlbumListItem> searchFuzzy(String query) {
+        String q = normalize(query);
+        long[] grams = trigramsOf(q);
+        if (grams.length == 0) {
+            return searchSubstring(q);
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] hits = new int[docs.size()];
+            for (long gram : grams) {
+                IntList list = postings.get(gram);
+                if (list == null) {
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    hits[list.data[i]]++;
+                }
+            }
+
+            int minHits = Math.max(1, (int) Math.ceil(grams.length * FUZZY_MIN_SIMILARITY));
+            List<Integer> matched = new ArrayList<>();
+            for (int doc = 0; doc < hits.length; doc++) {
+                if (hits[doc] >= minHits && !deleted[doc]) {
+                    matched.add(doc);
+                }
+            }
+            matched.sort((a, b) -> Integer.compare(hits[b], hits[a]));
+
+            List<AlbumListItem> result = new ArrayList<>(matched.size());
+            for (int doc : matched) {
+                result.add(docs.get(doc));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Подстрока, а если ничего не нашлось - поиск с опечатками
+     */
+    public List<AlbumListItem> search(String query) {
+        List<AlbumListItem> exact = searchSubstring(query);
+        return exact.isEmpty() ? searchFuzzy(query) : exact;
+    }
+
+    /**
+     * Совпадения по подстроке для чужого списка альбомов (фильтр новинок).
+     * Весь список сверяется с одним снимком индекса под одной блокировкой:
+     * для каждого альбома - MATCH, NO_MATCH или NOT_INDEXED, если индекс
+     * его ещё не видел (такие вызывающий проверяет сам)
+     */
+    public byte[] matchSubstring(String query, List<AlbumListItem> albums) {
+        String q = normalize(query);
+        byte[] result = new byte[albums.size()];
+        lock.readLock().lock();
+        try {
+            boolean[] matched = new boolean[docs.size()];
+            for (int doc : exactCandidates(q)) {
+                matched[doc] = keys.get(doc).contains(q);
+            }
+            for (int i = 0; i < result.length; i++) {
+                Integer doc = docByAlbumId.get(albums.get(i).getId());
+                if (doc == null) {
+                    result[i] = NOT_INDEXED;
+                } else {
+                    result[i] = matched[doc] ? MATCH : NO_MATCH;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Кандидаты для точного поиска: пересечение постинг-листов всех триграмм запроса.
+     * Для запросов короче 3 символов - все живые документы.
+     */
+    private int[] exactCandidates(String q) {
+        long[] grams = trigramsOf(q);
+
+        if (grams.length == 0) {
+            int[] all = new int[docs.size() - deletedCount];
+            int n = 0;
+            for (int doc = 0; doc < docs.size(); doc++) {
+                if (!deleted[doc]) {
+                    all[n++] = doc;
+                }
+            }
+            return all;
+        }
+
+        // Начинаем с самого короткого списка
+        IntList[] lists = new IntList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] current = Arrays.copyOf(lists[0].data, lists[0].size);
+        int currentSize = current.length;
+        for (int i = 1; i < lists.length && currentSize > 0; i++) {
+            currentSize = intersect(current, currentSize, lists[i]);
+        }
+
+        int n = 0;
+        for (int i = 0; i < currentSize; i++) {
+            if (!deleted[current[i]]) {
+                current[n++] = current[i];
+            }
+        }
+        return Arrays.copyOf(current, n);
+    }
+
+    /**
+     * Пересечение отсортированных списков на месте, возвращает новый размер
+     */
+    private static int intersect(int[] target, int targetSize, IntList other) {
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < targetSize && j < other.size) {
+            int a = target[i];
+            int b = other.data[j];
+            if (a == b) {
+                target[n++] = a;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return n;
+    }
+
+    private static boolean hasWordStartingWith(String key, String q) {
+        int from = 0;
+        while (true) {
+            int index = key.indexOf(q, from);
+            if (index < 0) {
+                return false;
+            }
+            if (index == 0 || !Character.isLetterOrDigit(key.charAt(index - 1))) {
+                return true;
+            }
+            from = index + 1;
+        }
+    }
+
+    // ===== ПАМЯТЬ =====
+
+    /**
+     * Нехватка памяти. release = false - пересобрать без удалённых документов и
+     * с подогнанными по размеру постинг-листами; true - выбросить индекс целиком
+     * (поиск дождётся, пока индекс не пересоберётся)
+     */
+    public void trimMemory(boolean release) {
+        indexExecutor.execute(() -> {
+            int docCount;
+            int gramCount;
+            lock.writeLock().lock();
+            try {
+                if (release) {
+                    ready = false;
+                    rebuild(new ArrayList<>());
+                    released = true;
+                } else {
+                    List<AlbumListItem> live = new ArrayList<>(docs.size() - deletedCount);
+                    for (int doc = 0; doc < docs.size(); doc++) {
+                        if (!deleted[doc]) {
+                            live.add(docs.get(doc));
+                        }
+                    }
+                    rebuild(live);
+                    for (IntList list : postings.values()) {
+                        list.trimToSize();
+                    }
+                }
+                docCount = docs.size();
+                gramCount = postings.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Log.d(TAG, (release ? "🗑️ Index released" : "🗜️ Index compacted: docs=" + docCount
+                    + ", grams=" + gramCount));
+        });
+    }
+
+    // ===== ПОСТРОЕНИЕ =====
+
+    private void scheduleSync() {
+        indexExecutor.execute(this::syncWithDatabase);
+    }
+
+    /**
+     * Сверяет индекс с таблицей albums и применяет только разницу
+     */
+    private void syncWithDatabase() {
+        long start = SystemClock.elapsedRealtime();
+        List<AlbumListItem> albums = database.albumDao().getAllAlbumListItemsSync();
+
+        int added = 0;
+        int updated = 0;
+        int removed = 0;
+        int docCount;
+        int gramCount;
+
+        lock.writeLock().lock();
+        try {
+            Set<String> present = new HashSet<>(albums.size() * 2);
+
+            for (AlbumListItem album : albums) {
+                present.add(album.getId());
+                String key = buildKey(album);
+                Integer doc = docByAlbumId.get(album.getId());
+
+                if (doc == null) {
+                    addDoc(album, key);
+                    added++;
+                } else if (!keys.get(doc).equals(key)) {
+                    markDeleted(doc);
+                    addDoc(album, key);
+                    updated++;
+                } else {
+                    // Текст тот же - обновляем только сам объект (например, обложку)
+                    docs.set(doc, album);
+                }
+            }
+
+            for (Map.Entry<String, Integer> entry : new ArrayList<>(docByAlbumId.entrySet())) {
+                if (!present.contains(entry.getKey())) {
+                    markDeleted(entry.getValue());
+                    docByAlbumId.remove(entry.getKey());
+                    removed++;
+                }
+            }
+
+            // Удалённых больше половины - пересобираем с нуля
+            if (deletedCount > docs.size() / 2) {
+                rebuild(albums);
+            }
+
+            ready = true;
+            released = false;
+            docCount = docs.size() - deletedCount;
+            gramCount = postings.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Log.d(TAG, "🗂️ Index synced: +" + added + " ~" + updated + " -" + removed
+                + ", docs=" + docCount
+                + ", grams=" + gramCount
+                + ", " + (SystemClock.elapsedRealtime() - start) + " ms");
+    }
+
+    private void rebuild(List<AlbumListItem> albums) {
+        docs.clear();
+        keys.clear();
+        docByAlbumId.clear();
+        postings.clear();
+        deleted = new boolean[Math.max(16, albums.size())];
+        deletedCount = 0;
+
+        for (AlbumListItem album : albums) {
+            addDoc(album, buildKey(album));
+        }
+    }
+
+    private void addDoc(AlbumListItem album, String key) {
+        int doc = docs.size();
+        docs.add(album);
+        keys.add(key);
+        docByAlbumId.put(album.getId(), doc);
+
+        if (doc >= deleted.length) {
+            deleted = Arrays.copyOf(deleted, deleted.length * 2);
+        }
+
+        // Номера документов растут - постинг-листы остаются отсортированными
+        for (long gram : trigramsOf(key)) {
+            IntList list = postings.get(gram);
+            if (list == null) {
+                list = new IntList();
+                postings.put(gram, list);
+            }
+            list.add(doc);
+        }
+    }
+
+    private void markDeleted(int doc) {
+        if (!deleted[doc]) {
+            deleted[doc] = true;
+            deletedCount++;
+        }
+    }
+
+    private static String buildKey(AlbumListItem album) {
+        // \n не встречается в запросе - триграммы не склеивают название с артистом
+        return normalize(album.getTitle()) + '\n' + normalize(album.getArtist());
+    }
+
+    /**
+     * Уникальные триграммы строки; 3 символа упакованы в long
+     */
+    private static long[] trigramsOf(String s) {
+        if (s.length() < 3) {
+            return new long[0];
+        }
+
+        long[] grams = new long[s.length() - 2];
+        int n = 0;
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            grams[n++] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+
+        Arrays.sort(grams, 0, n);
+        int unique = 0;
+        for (int i = 0; i < n; i++) {
+            if (unique == 0 || grams[unique - 1] != grams[i]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, unique);
+    }
+
+    /**
+     * Нижний регистр без диакритики: "Beyoncé" → "beyonce"
+     */
+    public static String normalize(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Растущий массив int без упаковки в Integer
+     */
+    private static final class IntList {
+        int[] data = new int[4];
+        int size = 0;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        void trimToSize() {
+            if (size < data.length) {
+                data = Arrays.copyOf(data, size);
+            }
+        }
+    }
+}
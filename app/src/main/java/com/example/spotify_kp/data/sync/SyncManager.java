@@ -1,19 +1,20 @@
 package com.example.spotify_kp.data.sync;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.util.Log;
 
 import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.data.local.KeyValueStore;
 import com.example.spotify_kp.data.local.entity.AlbumEntity;
 import com.example.spotify_kp.data.mapper.AlbumMapper;
 import com.example.spotify_kp.data.remote.RetrofitClient;
 import com.example.spotify_kp.data.remote.dto.AlbumDto;
 import com.example.spotify_kp.data.remote.dto.AlbumResponse;
+import com.example.spotify_kp.data.repository.AlbumRepository;
+import com.example.spotify_kp.data.repository.TrackRepository;
 import com.example.spotify_kp.utils.NetworkUtils;
 
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -25,13 +26,11 @@ import retrofit2.Response;
  */
 public class SyncManager {
     private static final String TAG = "SyncManager";
-    private static final String PREF_NAME = "SyncPrefs";
     private static final String KEY_LAST_SYNC = "last_sync_time";
-    private static final long SYNC_INTERVAL = TimeUnit.HOURS.toMillis(24); // 24 часа
 
     private Context context;
     private AppDatabase database;
-    private SharedPreferences prefs;
+    private KeyValueStore prefs;
 
     // Список популярных альбомов для начальной загрузки
     private static final String DEFAULT_ALBUM_IDS =
@@ -40,7 +39,7 @@ public class SyncManager {
     public SyncManager(Context context) {
         this.context = context.getApplicationContext();
         this.database = AppDatabase.getInstance(context);
-        this.prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.prefs = KeyValueStore.sync(context);
     }
 
     /**
@@ -49,7 +48,8 @@ public class SyncManager {
     public boolean needsSync() {
         long lastSync = prefs.getLong(KEY_LAST_SYNC, 0);
         long currentTime = System.currentTimeMillis();
-        return (currentTime - lastSync) > SYNC_INTERVAL;
+        // Тот же max-age, что и у каталога в AlbumRepository
+        return !AlbumRepository.DEFAULT_CACHE_POLICY.isFresh(currentTime - lastSync);
     }
 
     /**
@@ -117,8 +117,9 @@ public class SyncManager {
                                 List<AlbumEntity> albums = AlbumMapper.toEntityList(albumDtos);
 
                                 // Сохраняем в БД в фоновом потоке
-                                new Thread(() -> {
+                                AppDatabase.databaseExecutor.execute(() -> {
                                     database.albumDao().insertAll(albums);
+                                    TrackRepository.saveTracksFrom(database, albumDtos);
 
                                     // Обновляем время последней синхронизации
                                     prefs.edit()
@@ -126,7 +127,7 @@ public class SyncManager {
                                             .apply();
 
                                     Log.d(TAG, "✅ Sync completed: " + albums.size() + " albums");
-                                }).start();
+                                });
 
                                 if (callback != null) {
                                     callback.onSyncCompleted(true, "Synced " + albums.size() + " albums");
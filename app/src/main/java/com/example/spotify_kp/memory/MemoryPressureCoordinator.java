@@ -0,0 +1,217 @@
+package com.example.spotify_kp.memory;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.os.Debug;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.bumptech.glide.Glide;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Единая точка реакции на нехватку памяти (onTrimMemory / onLowMemory).
+ *
+ * Уровень системы переводится в стадию, стадии накопительные:
+ *  - IMAGES: ужать память Glide (в т.ч. когда UI просто скрыт);
+ *  - CACHES: + L1-кеш альбомов, кеши выборок, облегчить индексы фильтра;
+ *  - HIDDEN_VIEWS: + отпустить view скрытых вкладок;
+ *  - CRITICAL: + очистить кеши полностью, выбросить индекс поиска.
+ * Память Glide очищается целиком, только когда процесс в фоне (BACKGROUND и выше).
+ * Владельцы кешей подписываются через {@link #register} и сами решают,
+ * что отдать на какой стадии. Каждая стадия записывается (куча до/после)
+ * в историю последних MAX_HISTORY событий и в logcat.
+ */
+public class MemoryPressureCoordinator {
+    private static final String TAG = "MemoryPressure";
+
+    private static final int MAX_HISTORY = 20;
+    // Через сколько после стадии ещё раз снять кучу: фоновая очистка и GC успевают отработать
+    private static final long SETTLE_DELAY_MS = 2000;
+
+    public enum Stage {
+        NONE, IMAGES, CACHES, HIDDEN_VIEWS, CRITICAL;
+
+        public boolean isAtLeast(Stage other) {
+            return compareTo(other) >= 0;
+        }
+    }
+
+    /**
+     * Вызывается на главном потоке; долгую работу переносить в свой поток
+     */
+    public interface Listener {
+        void onTrim(Stage stage);
+    }
+
+    /**
+     * Одна отработанная стадия. Куча - в байтах, settled = -1 пока не снята
+     */
+    public static final class TrimRecord {
+        public final long timestamp;
+        public final int level;
+        public final Stage stage;
+        public final int listeners;
+        public final long durationMs;
+        public final long javaHeapBefore;
+        public final long javaHeapAfter;
+        public final long nativeHeapBefore;
+        public final long nativeHeapAfter;
+        private volatile long javaHeapSettled = -1;
+        private volatile long nativeHeapSettled = -1;
+
+        TrimRecord(int level, Stage stage, int listeners, long durationMs,
+                   long javaHeapBefore, long javaHeapAfter,
+                   long nativeHeapBefore, long nativeHeapAfter) {
+            this.timestamp = System.currentTimeMillis();
+            this.level = level;
+            this.stage = stage;
+            this.listeners = listeners;
+            this.durationMs = durationMs;
+            this.javaHeapBefore = javaHeapBefore;
+            this.javaHeapAfter = javaHeapAfter;
+            this.nativeHeapBefore = nativeHeapBefore;
+            this.nativeHeapAfter = nativeHeapAfter;
+        }
+
+        public long getJavaHeapSettled() {
+            return javaHeapSettled;
+        }
+
+        public long getNativeHeapSettled() {
+            return nativeHeapSettled;
+        }
+
+        @Override
+        public String toString() {
+            return stage + " (level " + level + ", " + listeners + " listeners, " + durationMs + " ms)"
+                    + " java " + kb(javaHeapBefore) + "→" + kb(javaHeapAfter)
+                    + (javaHeapSettled >= 0 ? "→" + kb(javaHeapSettled) : "")
+                    + " KB, native " + kb(nativeHeapBefore) + "→" + kb(nativeHeapAfter)
+                    + (nativeHeapSettled >= 0 ? "→" + kb(nativeHeapSettled) : "") + " KB";
+        }
+    }
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ArrayDeque<TrimRecord> history = new ArrayDeque<>();
+
+    public MemoryPressureCoordinator(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public void register(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void unregister(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Из Application.onTrimMemory
+     */
+    public void onTrimMemory(int level) {
+        Stage stage = stageFor(level);
+        if (stage != Stage.NONE) {
+            trim(level, stage);
+        }
+    }
+
+    /**
+     * Из Application.onLowMemory: то же, что TRIM_MEMORY_COMPLETE
+     */
+    public void onLowMemory() {
+        trim(ComponentCallbacks2.TRIM_MEMORY_COMPLETE, Stage.CRITICAL);
+    }
+
+    /**
+     * Последние стадии, от старых к новым
+     */
+    public synchronized List<TrimRecord> getHistory() {
+        return new ArrayList<>(history);
+    }
+
+    static Stage stageFor(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            return Stage.CRITICAL;
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            return Stage.HIDDEN_VIEWS;
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            // Пользователь просто свернул приложение и скоро вернётся - кеши и view
+            // вкладок ещё пригодятся, ужимаем только картинки
+            return Stage.IMAGES;
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            return Stage.HIDDEN_VIEWS;
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            return Stage.CACHES;
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            return Stage.IMAGES;
+        }
+        return Stage.NONE;
+    }
+
+    private void trim(int level, Stage stage) {
+        long start = SystemClock.elapsedRealtime();
+        long javaBefore = javaHeapUsed();
+        long nativeBefore = Debug.getNativeHeapAllocatedSize();
+
+        trimImages(level);
+        for (Listener listener : listeners) {
+            try {
+                listener.onTrim(stage);
+            } catch (RuntimeException e) {
+                // Один сломанный подписчик не должен мешать остальным освобождать память
+                Log.e(TAG, "❌ Trim listener failed at " + stage + ": " + e.getMessage());
+            }
+        }
+
+        TrimRecord record = new TrimRecord(level, stage, listeners.size(),
+                SystemClock.elapsedRealtime() - start,
+                javaBefore, javaHeapUsed(),
+                nativeBefore, Debug.getNativeHeapAllocatedSize());
+        synchronized (this) {
+            history.addLast(record);
+            while (history.size() > MAX_HISTORY) {
+                history.removeFirst();
+            }
+        }
+        Log.d(TAG, "🧹 " + record);
+
+        mainHandler.postDelayed(() -> {
+            record.javaHeapSettled = javaHeapUsed();
+            record.nativeHeapSettled = Debug.getNativeHeapAllocatedSize();
+            Log.d(TAG, "📉 Settled after " + stage + ": " + record);
+        }, SETTLE_DELAY_MS);
+    }
+
+    /**
+     * Целиком - только в фоне (BACKGROUND и выше) и при onLowMemory; пока
+     * процесс на переднем плане или UI лишь скрыт, Glide ужимается по уровню,
+     * иначе видимые / возвращаемые экраны заново грузят все обложки
+     */
+    private void trimImages(int level) {
+        Glide glide = Glide.get(context);
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            glide.clearMemory();
+        } else {
+            glide.trimMemory(level);
+        }
+    }
+
+    private static long javaHeapUsed() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long kb(long bytes) {
+        return bytes / 1024;
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.spotify_kp.metrics;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Display;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Время кадров по экранам и состоянию приложения.
+ *
+ * Каждый кадр окна (Window.OnFrameMetricsAvailableListener) попадает в
+ * гистограмму своего состояния: экран ("CatalogFragment", "details") плюс
+ * текущее действие ("scrolling", "search typing"). Кадр считается jank,
+ * если не уложился в свой дедлайн (интервал vsync), frozen - дольше 700 мс.
+ * При уходе экрана в фон отчёт пишется в files/frame_metrics.json и в logcat.
+ */
+public class FrameMetricsRecorder {
+    private static final String TAG = "FrameMetrics";
+
+    public static final String INTERACTION_SCROLLING = "scrolling";
+    public static final String INTERACTION_TYPING = "search typing";
+
+    private static final String REPORT_FILE = "frame_metrics.json";
+    private static final long FROZEN_FRAME_NS = 700_000_000L;
+    // Ввод с клавиатуры считается продолжающимся, пока между нажатиями меньше этого
+    private static final long TYPING_TIMEOUT_MS = 600;
+    // Верхние границы корзин гистограммы, мс; последняя корзина - всё, что дольше
+    private static final int[] BUCKETS_MS = {4, 8, 12, 16, 20, 25, 33, 50, 75, 100, 150, 250, 500, 700};
+
+    private static final FrameMetricsRecorder instance = new FrameMetricsRecorder();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Handler metricsHandler;
+    // состояние → гистограмма; пишется в потоке frame-metrics, читается при экспорте
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+
+    private volatile String interaction; // меняется только на главном потоке
+    private final Runnable typingTimeout = () -> clearInteraction(INTERACTION_TYPING);
+
+    private FrameMetricsRecorder() {
+        HandlerThread thread = new HandlerThread("frame-metrics");
+        thread.start();
+        metricsHandler = new Handler(thread.getLooper());
+    }
+
+    public static FrameMetricsRecorder get() {
+        return instance;
+    }
+
+    /**
+     * Снимать кадры окна activity (вызывать после setContentView).
+     * Слушатель снимается в onDestroy, отчёт сохраняется в onStop
+     */
+    public <A extends Activity & LifecycleOwner> ScreenTracker track(A activity, String screen) {
+        ScreenTracker tracker = new ScreenTracker(activity, screen);
+        activity.getLifecycle().addObserver(tracker);
+        return tracker;
+    }
+
+    /**
+     * Кадры, пока список прокручивается, идут в состояние "scrolling"
+     */
+    public void trackScrolling(RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                    clearInteraction(INTERACTION_SCROLLING);
+                } else {
+                    setInteraction(INTERACTION_SCROLLING);
+                }
+            }
+        });
+    }
+
+    /**
+     * Из TextWatcher поля поиска: состояние "search typing" до паузы во вводе
+     */
+    public void onSearchTyping() {
+        setInteraction(INTERACTION_TYPING);
+        mainHandler.removeCallbacks(typingTimeout);
+        mainHandler.postDelayed(typingTimeout, TYPING_TIMEOUT_MS);
+    }
+
+    public void setInteraction(String interaction) {
+        this.interaction = interaction;
+    }
+
+    /**
+     * Снять действие, если оно всё ещё текущее
+     */
+    public void clearInteraction(String interaction) {
+        if (interaction.equals(this.interaction)) {
+            this.interaction = null;
+        }
+    }
+
+    /**
+     * Все состояния с гистограммами и p50/p90/p99
+     */
+    public synchronized JSONObject exportJson() throws JSONException {
+        JSONObject states = new JSONObject();
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            states.put(entry.getKey(), entry.getValue().toJson());
+        }
+        JSONObject report = new JSONObject();
+        report.put("timestamp", System.currentTimeMillis());
+        report.put("bucketsMs", new JSONArray(BUCKETS_MS));
+        report.put("states", states);
+        return report;
+    }
+
+    public synchronized void reset() {
+        histograms.clear();
+    }
+
+    /**
+     * Сохранить отчёт в files/frame_metrics.json (в потоке frame-metrics:
+     * не занимает пул БД, и два отчёта не пишут один файл одновременно)
+     */
+    public void writeReport(Context context) {
+        Context appContext = context.getApplicationContext();
+        metricsHandler.post(() -> {
+            try {
+                JSONObject report = exportJson();
+                File file = new File(appContext.getFilesDir(), REPORT_FILE);
+                File tmp = new File(file.getPath() + ".tmp");
+                try (FileOutputStream out = new FileOutputStream(tmp)) {
+                    out.write(report.toString(2).getBytes(StandardCharsets.UTF_8));
+                }
+                if (!tmp.renameTo(file)) {
+                    throw new IOException("rename failed: " + file);
+                }
+                logSummary();
+            } catch (IOException | JSONException e) {
+                Log.e(TAG, "❌ Failed to save frame metrics: " + e.getMessage());
+            }
+        });
+    }
+
+    private synchronized void record(String state, long durationNs, long deadlineNs) {
+        Histogram histogram = histograms.get(state);
+        if (histogram == null) {
+            histogram = new Histogram();
+            histograms.put(state, histogram);
+        }
+        histogram.add(durationNs, deadlineNs);
+    }
+
+    private synchronized void logSummary() {
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram h = entry.getValue();
+            Log.d(TAG, "🎞️ " + entry.getKey() + ": " + h.frames + " frames, jank "
+                    + h.jankFrames + " (" + Math.round(h.jankRate() * 1000) / 10f + "%), frozen "
+                    + h.frozenFrames + ", p50 " + h.percentileMs(50) + " ms, p90 "
+                    + h.percentileMs(90) + " ms, p99 " + h.percentileMs(99) + " ms");
+        }
+    }
+
+    /**
+     * Кадры одного окна. Экран меняется, если в окне переключаются вкладки
+     */
+    public final class ScreenTracker implements DefaultLifecycleObserver {
+        private final Window window;
+        private final long fallbackDeadlineNs;
+        private volatile String screen;
+
+        private final Window.OnFrameMetricsAvailableListener listener =
+                (w, frameMetrics, dropCount) -> onFrame(frameMetrics);
+
+        private ScreenTracker(Activity activity, String screen) {
+            this.window = activity.getWindow();
+            this.screen = screen;
+
+            // До Android 12 в FrameMetrics нет дедлайна - берём интервал vsync дисплея
+            Display display = activity.getDisplay();
+            float refreshRate = display != null ? display.getRefreshRate() : 60f;
+            this.fallbackDeadlineNs = (long) (1_000_000_000L / refreshRate);
+
+            window.addOnFrameMetricsAvailableListener(listener, metricsHandler);
+        }
+
+        public void setScreen(String screen) {
+            this.screen = screen;
+        }
+
+        @Override
+        public void onStop(@NonNull LifecycleOwner owner) {
+            writeReport(window.getContext());
+        }
+
+        @Override
+        public void onDestroy(@NonNull LifecycleOwner owner) {
+            window.removeOnFrameMetricsAvailableListener(listener);
+        }
+
+        private void onFrame(FrameMetrics frameMetrics) {
+            // Первый кадр окна - это inflate и первая раскладка, их меряет StartupTrace
+            if (frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1) {
+                return;
+            }
+            long deadlineNs = Build.VERSION.SDK_INT >= Build.VERSION_CODES.S
+                    ? frameMetrics.getMetric(FrameMetrics.DEADLINE)
+                    : fallbackDeadlineNs;
+            String currentInteraction = interaction;
+            String state = currentInteraction != null ? screen + " | " + currentInteraction : screen;
+            record(state, frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION), deadlineNs);
+        }
+    }
+
+    private static final class Histogram {
+        private final long[] counts = new long[BUCKETS_MS.length + 1];
+        private long frames;
+        private long jankFrames;
+        private long frozenFrames;
+        private long totalNs;
+        private long maxNs;
+
+        void add(long durationNs, long deadlineNs) {
+            long durationMs = durationNs / 1_000_000;
+            int bucket = 0;
+            while (bucket < BUCKETS_MS.length && durationMs >= BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            counts[bucket]++;
+
+            frames++;
+            totalNs += durationNs;
+            maxNs = Math.max(maxNs, durationNs);
+            if (durationNs > deadlineNs) {
+                jankFrames++;
+            }
+            if (durationNs >= FROZEN_FRAME_NS) {
+                frozenFrames++;
+            }
+        }
+
+        float jankRate() {
+            return frames == 0 ? 0 : (float) jankFrames / frames;
+        }
+
+        /**
+         * Верхняя граница корзины, в которую попадает перцентиль (для последней - max)
+         */
+        long percentileMs(int percent) {
+            long rank = (long) Math.ceil(percent / 100.0 * frames);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    return i < BUCKETS_MS.length ? BUCKETS_MS[i] : maxNs / 1_000_000;
+                }
+            }
+            return 0;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("frames", frames);
+            json.put("jankFrames", jankFrames);
+            json.put("frozenFrames", frozenFrames);
+            json.put("jankRate", jankRate());
+            json.put("meanMs", frames == 0 ? 0 : totalNs / frames / 1_000_000.0);
+            json.put("maxMs", maxNs / 1_000_000);
+            json.put("p50Ms", percentileMs(50));
+            json.put("p90Ms", percentileMs(90));
+            json.put("p99Ms", percentileMs(99));
+            json.put("histogram", new JSONArray(counts));
+            return json;
+        }
+    }
+}
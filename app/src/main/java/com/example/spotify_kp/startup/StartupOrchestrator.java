@@ -0,0 +1,163 @@
+package com.example.spotify_kp.startup;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.spotify_kp.AppContainer;
+import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.data.remote.RetrofitClient;
+import com.example.spotify_kp.utils.SharedPrefsManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Прогрев приложения, пока показан splash.
+ * Фазы идут параллельно в databaseExecutor:
+ *  - database (критическая): открыть AppDatabase (миграции);
+ *  - session (критическая): прочитать сессию пользователя;
+ *  - catalog: первая страница каталога - в L1-кеш (после database);
+ *  - network: собрать Retrofit и резолвить хост API.
+ * Splash уходит, как только готовы критические фазы (или по таймауту).
+ */
+public class StartupOrchestrator {
+    private static final String TAG = "StartupOrchestrator";
+
+    public static final String PHASE_DATABASE = "database";
+    public static final String PHASE_SESSION = "session";
+    public static final String PHASE_CATALOG = "catalog";
+    public static final String PHASE_NETWORK = "network";
+
+    private static final int CRITICAL_PHASES = 2; // database + session
+
+    private static StartupOrchestrator instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicInteger criticalRemaining = new AtomicInteger(CRITICAL_PHASES);
+    private final Map<String, Long> phaseDurations = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private boolean started = false;
+    private long startedAt;
+    private Runnable readyCallback; // только на главном потоке
+    private Runnable timeoutCallback;
+
+    private StartupOrchestrator() {
+    }
+
+    public static synchronized StartupOrchestrator getInstance() {
+        if (instance == null) {
+            instance = new StartupOrchestrator();
+        }
+        return instance;
+    }
+
+    /**
+     * Запускает все фазы (повторный вызов ничего не делает)
+     */
+    public synchronized void start(Context context) {
+        if (started) {
+            return;
+        }
+        started = true;
+        startedAt = SystemClock.elapsedRealtime();
+        Context appContext = context.getApplicationContext();
+
+        AppDatabase.databaseExecutor.execute(() -> {
+            runPhase(PHASE_DATABASE, () ->
+                    AppDatabase.getInstance(appContext).getOpenHelper().getWritableDatabase());
+            onCriticalDone();
+
+            // Каталог читаем только из уже открытой БД
+            runPhase(PHASE_CATALOG, () ->
+                    AppContainer.from(appContext).getAlbumRepository().warmUpSync());
+        });
+
+        AppDatabase.databaseExecutor.execute(() -> {
+            runPhase(PHASE_SESSION, () -> SharedPrefsManager.getInstance(appContext).isLoggedIn());
+            onCriticalDone();
+        });
+
+        AppDatabase.databaseExecutor.execute(() -> runPhase(PHASE_NETWORK, RetrofitClient::warmUp));
+    }
+
+    /**
+     * onReady на главном потоке, когда критические фазы готовы, но не позже maxWaitMs.
+     * Вызывается один раз; повторная регистрация заменяет предыдущий callback.
+     */
+    public void whenReady(long maxWaitMs, Runnable onReady) {
+        cancel();
+        if (isReady()) {
+            onReady.run();
+            return;
+        }
+
+        readyCallback = onReady;
+        timeoutCallback = () -> {
+            Log.w(TAG, "⏰ Startup not ready after " + maxWaitMs + " ms, continuing: " + phaseDurations);
+            fireReady();
+        };
+        mainHandler.postDelayed(timeoutCallback, maxWaitMs);
+    }
+
+    /**
+     * Снять ожидание (например, splash уничтожен)
+     */
+    public void cancel() {
+        if (timeoutCallback != null) {
+            mainHandler.removeCallbacks(timeoutCallback);
+            timeoutCallback = null;
+        }
+        readyCallback = null;
+    }
+
+    public boolean isReady() {
+        return criticalRemaining.get() <= 0;
+    }
+
+    /**
+     * Длительность завершённых фаз (мс), в порядке завершения
+     */
+    public Map<String, Long> getPhaseDurations() {
+        synchronized (phaseDurations) {
+            return new LinkedHashMap<>(phaseDurations);
+        }
+    }
+
+    private void runPhase(String phase, Runnable work) {
+        String tracePhase = "splash." + phase;
+        StartupTrace.get().begin(tracePhase);
+        long start = SystemClock.elapsedRealtime();
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            // Прогрев не должен ронять запуск - экран сам загрузит данные
+            Log.e(TAG, "❌ Phase " + phase + " failed: " + e.getMessage());
+        }
+        long duration = SystemClock.elapsedRealtime() - start;
+        StartupTrace.get().end(tracePhase);
+        phaseDurations.put(phase, duration);
+        Log.d(TAG, "⏱️ " + phase + ": " + duration + " ms (+"
+                + (SystemClock.elapsedRealtime() - startedAt) + " ms since start)");
+    }
+
+    private void onCriticalDone() {
+        if (criticalRemaining.decrementAndGet() == 0) {
+            Log.d(TAG, "✅ Critical phases ready in "
+                    + (SystemClock.elapsedRealtime() - startedAt) + " ms");
+            mainHandler.post(this::fireReady);
+        }
+    }
+
+    private void fireReady() {
+        Runnable callback = readyCallback;
+        cancel();
+        if (callback != null) {
+            callback.run();
+        }
+    }
+}
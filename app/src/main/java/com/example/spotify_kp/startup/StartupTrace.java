@@ -0,0 +1,259 @@
+package com.example.spotify_kp.startup;
+
+import android.content.Context;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import com.example.spotify_kp.data.local.AppDatabase;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Трассировка холодного старта: от старта процесса до первого кадра каталога.
+ *
+ * Каждая фаза - async-секция systrace/Perfetto (видна в трассе) и запись
+ * start/duration в мс от старта процесса. Запуск сохраняется в кольцевой
+ * буфер последних MAX_LAUNCHES запусков (files/startup_traces.json);
+ * отчёт с p50/p95 по фазам - в files/startup_report.json и в logcat.
+ */
+public class StartupTrace {
+    private static final String TAG = "StartupTrace";
+
+    public static final String PHASE_APPLICATION = "application.onCreate";
+    public static final String PHASE_MAIN_ACTIVITY = "main.onCreate";
+    public static final String PHASE_SETUP_HEADER = "main.setupHeader";
+    public static final String PHASE_LOAD_PROFILE = "main.loadUserProfile";
+    public static final String MARK_FIRST_CATALOG = "catalog.firstContent";
+
+    private static final String BUFFER_FILE = "startup_traces.json";
+    private static final String REPORT_FILE = "startup_report.json";
+    static final int MAX_LAUNCHES = 30;
+
+    private static final StartupTrace instance = new StartupTrace();
+
+    private final long processStart = Process.getStartElapsedRealtime();
+    // фаза → {start, duration}; duration = -1 пока фаза не закончилась
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+    private final Map<String, Long> marks = new LinkedHashMap<>();
+    // Условия запуска (например, применён ли baseline profile)
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+    private boolean completed = false;
+
+    private StartupTrace() {
+    }
+
+    public static StartupTrace get() {
+        return instance;
+    }
+
+    public void begin(String phase) {
+        synchronized (this) {
+            if (completed || phases.containsKey(phase)) {
+                return;
+            }
+            phases.put(phase, new long[]{sinceProcessStart(), -1});
+        }
+        Trace.beginAsyncSection(phase, phase.hashCode());
+    }
+
+    public void end(String phase) {
+        synchronized (this) {
+            long[] timing = phases.get(phase);
+            if (completed || timing == null || timing[1] >= 0) {
+                return;
+            }
+            timing[1] = sinceProcessStart() - timing[0];
+        }
+        Trace.endAsyncSection(phase, phase.hashCode());
+    }
+
+    public synchronized void mark(String event) {
+        if (!completed && !marks.containsKey(event)) {
+            marks.put(event, sinceProcessStart());
+        }
+    }
+
+    public synchronized void putAttribute(String key, String value) {
+        if (!completed) {
+            attributes.put(key, value);
+        }
+    }
+
+    /**
+     * Первый кадр с данными: запуск закрывается и уходит в буфер (один раз за процесс)
+     */
+    public void complete(Context context, String event) {
+        JSONObject launch;
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            mark(event);
+            completed = true;
+            launch = toJson();
+        }
+        Log.d(TAG, "🚀 Cold start: " + launch);
+
+        Context appContext = context.getApplicationContext();
+        AppDatabase.databaseExecutor.execute(() -> persist(appContext, launch));
+    }
+
+    /**
+     * Все сохранённые запуски и p50/p95 по фазам. Вызывать из фонового потока
+     */
+    public static JSONObject exportJson(Context context) throws JSONException {
+        JSONArray launches = readBuffer(context);
+        JSONObject report = new JSONObject();
+        report.put("launches", launches.length());
+        report.put("percentiles", percentiles(launches));
+        report.put("history", launches);
+        return report;
+    }
+
+    private long sinceProcessStart() {
+        return SystemClock.elapsedRealtime() - processStart;
+    }
+
+    private JSONObject toJson() {
+        JSONObject launch = new JSONObject();
+        try {
+            launch.put("timestamp", System.currentTimeMillis());
+            JSONObject phaseJson = new JSONObject();
+            for (Map.Entry<String, long[]> entry : phases.entrySet()) {
+                JSONObject timing = new JSONObject();
+                timing.put("start", entry.getValue()[0]);
+                timing.put("duration", entry.getValue()[1]);
+                phaseJson.put(entry.getKey(), timing);
+            }
+            launch.put("phases", phaseJson);
+            launch.put("marks", new JSONObject(new LinkedHashMap<String, Object>(marks)));
+            launch.put("attributes", new JSONObject(new LinkedHashMap<String, Object>(attributes)));
+        } catch (JSONException e) {
+            Log.e(TAG, "❌ Trace serialization failed: " + e.getMessage());
+        }
+        return launch;
+    }
+
+    static void persist(Context context, JSONObject launch) {
+        try {
+            JSONArray trimmed = append(readBuffer(context), launch);
+            write(new File(context.getFilesDir(), BUFFER_FILE), trimmed.toString());
+
+            JSONObject report = exportJson(context);
+            write(new File(context.getFilesDir(), REPORT_FILE), report.toString(2));
+            Log.d(TAG, "📊 Startup p50/p95 over " + trimmed.length() + " launches: "
+                    + report.getJSONObject("percentiles"));
+        } catch (IOException | JSONException e) {
+            Log.e(TAG, "❌ Failed to save startup trace: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Кольцевой буфер: запуск добавляется в конец, остаются последние MAX_LAUNCHES
+     */
+    static JSONArray append(JSONArray buffer, JSONObject launch) throws JSONException {
+        JSONArray trimmed = new JSONArray();
+        int from = Math.max(0, buffer.length() + 1 - MAX_LAUNCHES);
+        for (int i = from; i < buffer.length(); i++) {
+            trimmed.put(buffer.get(i));
+        }
+        trimmed.put(launch);
+        return trimmed;
+    }
+
+    private static JSONArray readBuffer(Context context) {
+        File file = new File(context.getFilesDir(), BUFFER_FILE);
+        if (!file.exists()) {
+            return new JSONArray();
+        }
+        try {
+            return new JSONArray(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "⚠️ Startup trace buffer unreadable, starting over: " + e.getMessage());
+            return new JSONArray();
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("rename failed: " + file);
+        }
+    }
+
+    /**
+     * p50/p95 (nearest-rank) длительности каждой фазы и времени каждой отметки
+     */
+    static JSONObject percentiles(JSONArray launches) throws JSONException {
+        Map<String, List<Long>> samples = new LinkedHashMap<>();
+        for (int i = 0; i < launches.length(); i++) {
+            JSONObject launch = launches.getJSONObject(i);
+
+            JSONObject phaseJson = launch.optJSONObject("phases");
+            if (phaseJson != null) {
+                Iterator<String> keys = phaseJson.keys();
+                while (keys.hasNext()) {
+                    String key = keys.next();
+                    long duration = phaseJson.getJSONObject(key).getLong("duration");
+                    if (duration >= 0) {
+                        addSample(samples, key, duration);
+                    }
+                }
+            }
+
+            JSONObject markJson = launch.optJSONObject("marks");
+            if (markJson != null) {
+                Iterator<String> keys = markJson.keys();
+                while (keys.hasNext()) {
+                    String key = keys.next();
+                    addSample(samples, key, markJson.getLong(key));
+                }
+            }
+        }
+
+        JSONObject result = new JSONObject();
+        for (Map.Entry<String, List<Long>> entry : samples.entrySet()) {
+            List<Long> values = entry.getValue();
+            Collections.sort(values);
+            JSONObject stats = new JSONObject();
+            stats.put("p50", percentile(values, 50));
+            stats.put("p95", percentile(values, 95));
+            stats.put("n", values.size());
+            result.put(entry.getKey(), stats);
+        }
+        return result;
+    }
+
+    private static void addSample(Map<String, List<Long>> samples, String key, long value) {
+        List<Long> values = samples.get(key);
+        if (values == null) {
+            values = new ArrayList<>();
+            samples.put(key, values);
+        }
+        values.add(value);
+    }
+
+    static long percentile(List<Long> sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+}
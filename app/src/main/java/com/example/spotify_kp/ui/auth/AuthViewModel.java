@@ -6,6 +6,7 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 
+import com.example.spotify_kp.AppContainer;
 import com.example.spotify_kp.data.repository.AuthRepository;
 import com.example.spotify_kp.model.User;
 import com.example.spotify_kp.utils.Resource;
@@ -16,7 +17,7 @@ public class AuthViewModel extends AndroidViewModel {
 
     public AuthViewModel(@NonNull Application application) {
         super(application);
-        authRepository = new AuthRepository(application);
+        authRepository = AppContainer.from(application).getAuthRepository();
     }
 
     public LiveData<Resource<User>> login(String email, String password) {
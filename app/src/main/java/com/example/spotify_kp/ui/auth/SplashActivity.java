@@ -2,18 +2,21 @@ package com.example.spotify_kp.ui.auth;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.spotify_kp.ui.main.MainActivity;  // ✅ правильно (если MainActivity в корне)
 import com.example.spotify_kp.R;
+import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.startup.StartupOrchestrator;
 
 public class SplashActivity extends AppCompatActivity {
 
-    private static final long SPLASH_DELAY = 2000;
+    // Дольше не держим splash, даже если БД ещё мигрирует
+    private static final long MAX_SPLASH_WAIT = 2000;
     private AuthViewModel authViewModel;
+    private StartupOrchestrator startup;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -22,13 +25,33 @@ public class SplashActivity extends AppCompatActivity {
 
         authViewModel = new ViewModelProvider(this).get(AuthViewModel.class);
 
-        new Handler().postDelayed(() -> {
-            if (authViewModel.isLoggedIn()) {
-                startActivity(new Intent(SplashActivity.this, MainActivity.class));
-            } else {
-                startActivity(new Intent(SplashActivity.this, LoginActivity.class));
-            }
-            finish();
-        }, SPLASH_DELAY);
+        // Уходим со splash, как только БД открыта и сессия прочитана
+        startup = StartupOrchestrator.getInstance();
+        startup.start(this);
+        startup.whenReady(MAX_SPLASH_WAIT, () ->
+                // По таймауту сессия может быть ещё не прочитана - ждём её не на главном потоке
+                AppDatabase.databaseExecutor.execute(() -> {
+                    boolean loggedIn = authViewModel.isLoggedIn();
+                    runOnUiThread(() -> openNextScreen(loggedIn));
+                }));
     }
-}
\ No newline at end of file
+
+    private void openNextScreen(boolean loggedIn) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        if (loggedIn) {
+            startActivity(new Intent(SplashActivity.this, MainActivity.class));
+        } else {
+            startActivity(new Intent(SplashActivity.this, LoginActivity.class));
+        }
+        finish();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // При повороте новый экран подпишется заново, фазы при этом не перезапускаются
+        startup.cancel();
+    }
+}
@@ -2,8 +2,11 @@ package com.example.spotify_kp.ui.catalog;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Process;
+import android.os.SystemClock;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -23,23 +26,32 @@ import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
+import com.bumptech.glide.Glide;
 import com.example.spotify_kp.R;
-import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.model.AlbumListItem;
+import com.example.spotify_kp.data.local.model.AlbumFacets;
+import com.example.spotify_kp.data.local.model.FacetCount;
+import com.example.spotify_kp.metrics.FrameMetricsRecorder;
+import com.example.spotify_kp.startup.StartupTrace;
 import com.example.spotify_kp.ui.catalog.adapter.AlbumAdapter;
 import com.example.spotify_kp.ui.details.DetailsActivity;
+import com.example.spotify_kp.ui.main.MainActivity;
+import com.example.spotify_kp.ui.main.TabVisibility;
 import com.example.spotify_kp.utils.Constants;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumClickListener {
 
+    private static final String TAG = "CatalogFragment";
+    private static boolean firstContentLogged = false; // один раз за процесс
+
     private CatalogViewModel viewModel;
     private AlbumAdapter adapter;
+    private TabVisibility tabVisibility;
 
     private SwipeRefreshLayout swipeRefresh;
     private RecyclerView recyclerView;
@@ -54,7 +66,8 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
     private Chip chipYear;
     private Chip chipClearFilters;
 
-    private List<AlbumEntity> allAlbums = new ArrayList<>();
+    // Жанры / годы с количеством - из кеша FacetRepository
+    private AlbumFacets facets;
 
     @Nullable
     @Override
@@ -68,12 +81,14 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
         super.onViewCreated(view, savedInstanceState);
 
         initViews(view);
+        tabVisibility = TabVisibility.attach(this);
         setupViewModel();
         setupRecyclerView();
         setupSwipeRefresh();
         setupSearchInput();
         setupFilters();
         observeAlbums();
+        observeFacets();
 
         viewModel.loadAlbums();
     }
@@ -98,10 +113,25 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
     }
 
     private void setupRecyclerView() {
-        adapter = new AlbumAdapter(this);
+        adapter = new AlbumAdapter(Glide.with(this), this);
         GridLayoutManager layoutManager = new GridLayoutManager(getContext(), 2);
         recyclerView.setLayoutManager(layoutManager);
+        // Карточки общие с другой сеткой (до setAdapter - см. AlbumViewPool.attach)
+        if (getActivity() instanceof MainActivity) {
+            ((MainActivity) getActivity()).getAlbumViewPool().attach(recyclerView);
+        }
         recyclerView.setAdapter(adapter);
+        tabVisibility.track(recyclerView);
+        FrameMetricsRecorder.get().trackScrolling(recyclerView);
+    }
+
+    @Override
+    public void onHiddenChanged(boolean hidden) {
+        super.onHiddenChanged(hidden);
+        // Скрытая вкладка не обновляет список; при показе получит последнее состояние
+        if (tabVisibility != null) {
+            tabVisibility.setHidden(hidden);
+        }
     }
 
     private void setupSwipeRefresh() {
@@ -119,11 +149,9 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                if (s.length() > 2) {
-                    viewModel.searchAlbums(s.toString());
-                } else if (s.length() == 0) {
-                    viewModel.loadAlbums();
-                }
+                // Debounce и отмена устаревших запросов - во ViewModel
+                viewModel.onSearchQueryChanged(s.toString());
+                FrameMetricsRecorder.get().onSearchTyping();
             }
 
             @Override
@@ -152,20 +180,15 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
     }
 
     private void showGenreFilterBottomSheet() {
-        if (allAlbums.isEmpty()) {
+        if (facets == null || facets.isEmpty()) {
             Toast.makeText(getContext(), "Loading albums...", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        // Collect unique genres
-        Set<String> genres = new HashSet<>();
-        for (AlbumEntity album : allAlbums) {
-            if (album.getGenre() != null && !album.getGenre().isEmpty()) {
-                genres.add(album.getGenre());
-            }
+        List<String> genreList = new ArrayList<>();
+        for (FacetCount genre : facets.getGenres()) {
+            genreList.add(genre.getValue());
         }
-
-        List<String> genreList = new ArrayList<>(genres);
         genreList.add(0, "🎵 All Genres"); // ✅ NEW: Add "All" option with emoji
 
         String[] genreArray = genreList.toArray(new String[0]);
@@ -174,25 +197,19 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
                 .setTitle("Select Genre")
                 .setSingleChoiceItems(genreArray, -1, (dialog, which) -> {
                     if (which == 0) {
-                        // "All Genres" selected - clear filter
-                        viewModel.clearFilters();
+                        // "All Genres" selected - year filter stays
+                        viewModel.clearGenreFilter();
                         chipGenre.setText("Genre");
-                        chipClearFilters.setVisibility(View.GONE);
+                        updateFilterChipsVisibility();
                         Toast.makeText(getContext(), "Showing all genres", Toast.LENGTH_SHORT).show();
                     } else {
                         // Specific genre selected
                         String selectedGenre = genreArray[which].replace("🎵 ", "");
                         viewModel.filterByGenre(selectedGenre);
                         chipGenre.setText("🎵 " + selectedGenre);
-                        chipClearFilters.setVisibility(View.VISIBLE);
+                        updateFilterChipsVisibility();
 
-                        // Count how many albums match this genre
-                        int count = 0;
-                        for (AlbumEntity album : allAlbums) {
-                            if (selectedGenre.equals(album.getGenre())) {
-                                count++;
-                            }
-                        }
+                        int count = facets.getGenreCount(selectedGenre);
                         Toast.makeText(getContext(), count + " albums found", Toast.LENGTH_SHORT).show();
                     }
                     dialog.dismiss();
@@ -202,21 +219,16 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
     }
 
     private void showYearFilterBottomSheet() {
-        if (allAlbums.isEmpty()) {
+        if (facets == null || facets.isEmpty()) {
             Toast.makeText(getContext(), "Loading albums...", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        // Collect unique years
-        Set<String> years = new HashSet<>();
-        for (AlbumEntity album : allAlbums) {
-            if (album.getYear() != null && !album.getYear().isEmpty() && !album.getYear().equals("Unknown")) {
-                years.add(album.getYear());
-            }
+        // Годы уже отсортированы: новые первыми
+        List<String> sortedYears = new ArrayList<>();
+        for (FacetCount year : facets.getYears()) {
+            sortedYears.add(year.getValue());
         }
-
-        List<String> sortedYears = new ArrayList<>(years);
-        sortedYears.sort((a, b) -> b.compareTo(a)); // Newest first
         sortedYears.add(0, "📅 All Years"); // ✅ NEW: Add "All" option with emoji
 
         String[] yearArray = sortedYears.toArray(new String[0]);
@@ -225,25 +237,19 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
                 .setTitle("Select Year")
                 .setSingleChoiceItems(yearArray, -1, (dialog, which) -> {
                     if (which == 0) {
-                        // "All Years" selected - clear filter
-                        viewModel.clearFilters();
+                        // "All Years" selected - genre filter stays
+                        viewModel.clearYearFilter();
                         chipYear.setText("Year");
-                        chipClearFilters.setVisibility(View.GONE);
+                        updateFilterChipsVisibility();
                         Toast.makeText(getContext(), "Showing all years", Toast.LENGTH_SHORT).show();
                     } else {
                         // Specific year selected
                         String selectedYear = yearArray[which].replace("📅 ", "");
                         viewModel.filterByYear(selectedYear);
                         chipYear.setText("📅 " + selectedYear);
-                        chipClearFilters.setVisibility(View.VISIBLE);
+                        updateFilterChipsVisibility();
 
-                        // Count how many albums from this year
-                        int count = 0;
-                        for (AlbumEntity album : allAlbums) {
-                            if (selectedYear.equals(album.getYear())) {
-                                count++;
-                            }
-                        }
+                        int count = facets.getYearCount(selectedYear);
                         Toast.makeText(getContext(), count + " albums from " + selectedYear, Toast.LENGTH_SHORT).show();
                     }
                     dialog.dismiss();
@@ -252,8 +258,30 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
                 .show();
     }
 
+    /**
+     * Время от старта процесса до первого непустого каталога (кеш / сеть)
+     */
+    private void logFirstContent(int albumCount) {
+        if (firstContentLogged) {
+            return;
+        }
+        firstContentLogged = true;
+        StartupTrace.get().complete(requireContext(), StartupTrace.MARK_FIRST_CATALOG);
+        // timeToFullDisplay для StartupBenchmark (baselineprofile)
+        requireActivity().reportFullyDrawn();
+        Log.d(TAG, "⏱️ First catalog content: " + albumCount + " albums, "
+                + (SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime())
+                + " ms since process start");
+    }
+
     private void updateFilterChipsVisibility() {
-        if (viewModel.getCurrentGenre() != null || viewModel.getCurrentYear() != null) {
+        // Фильтры переживают пересоздание фрагмента - подписи берём из ViewModel
+        String genre = viewModel.getCurrentGenre();
+        String year = viewModel.getCurrentYear();
+        chipGenre.setText(genre != null ? "🎵 " + genre : "Genre");
+        chipYear.setText(year != null ? "📅 " + year : "Year");
+
+        if (genre != null || year != null) {
             chipClearFilters.setVisibility(View.VISIBLE);
         } else {
             chipClearFilters.setVisibility(View.GONE);
@@ -261,7 +289,7 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
     }
 
     private void observeAlbums() {
-        viewModel.getAlbums().observe(getViewLifecycleOwner(), resource -> {
+        viewModel.getAlbums().observe(tabVisibility, resource -> {
             if (resource != null) {
                 swipeRefresh.setRefreshing(false);
 
@@ -275,8 +303,14 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
                     case SUCCESS:
                         if (resource.getData() != null && !resource.getData().isEmpty()) {
                             showContent();
-                            allAlbums = new ArrayList<>(resource.getData());
+                            // Устаревший кеш показываем сразу; свежий список заменит его через DiffUtil
                             adapter.setAlbums(resource.getData());
+                            logFirstContent(resource.getData().size());
+                            if (resource.isStale()) {
+                                Log.d(TAG, "🕒 Showing stale catalog (age "
+                                        + (resource.getAgeMs() < 0 ? "unknown" : resource.getAgeMs() / 60000 + " min")
+                                        + "), revalidating");
+                            }
                         } else {
                             showEmpty();
                         }
@@ -290,8 +324,12 @@ public class CatalogFragment extends Fragment implements AlbumAdapter.OnAlbumCli
         });
     }
 
+    private void observeFacets() {
+        viewModel.getFacets().observe(tabVisibility, albumFacets -> facets = albumFacets);
+    }
+
     @Override
-    public void onAlbumClick(AlbumEntity album) {
+    public void onAlbumClick(AlbumListItem album) {
         Intent intent = new Intent(getContext(), DetailsActivity.class);
         intent.putExtra(Constants.KEY_ALBUM_ID, album.getId());
         startActivity(intent);
@@ -1,35 +1,98 @@
 package com.example.spotify_kp.ui.catalog;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.LruCache;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
+import androidx.room.InvalidationTracker;
 
-import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.AppContainer;
+import com.example.spotify_kp.data.local.AppDatabase;
+import com.example.spotify_kp.data.local.model.AlbumFacets;
+import com.example.spotify_kp.data.local.model.AlbumListItem;
+import com.example.spotify_kp.data.local.query.AlbumFilter;
 import com.example.spotify_kp.data.repository.AlbumRepository;
+import com.example.spotify_kp.data.repository.FacetRepository;
+import com.example.spotify_kp.data.search.AlbumSearchIndex;
+import com.example.spotify_kp.memory.MemoryPressureCoordinator;
+import com.example.spotify_kp.utils.Constants;
 import com.example.spotify_kp.utils.Resource;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class CatalogViewModel extends AndroidViewModel {
 
+    private static final String TAG = "CatalogViewModel";
+    private static final int FILTER_CACHE_SIZE = 16;
+
     private AlbumRepository albumRepository;
-    private MediatorLiveData<Resource<List<AlbumEntity>>> albums;
-    private LiveData<Resource<List<AlbumEntity>>> currentSource;
+    private AlbumSearchIndex searchIndex;
+    private FacetRepository facetRepository;
+    private MediatorLiveData<Resource<List<AlbumListItem>>> albums;
+    private LiveData<Resource<List<AlbumListItem>>> currentSource;
+
+    // Текущие условия каталога и кеш результатов по ним
+    private AlbumFilter currentFilter = AlbumFilter.EMPTY;
+    private final LruCache<AlbumFilter, List<AlbumListItem>> filterResults =
+            new LruCache<>(FILTER_CACHE_SIZE);
+    private final AtomicLong filterCacheGeneration = new AtomicLong();
+    private final AppDatabase database;
+    private final InvalidationTracker.Observer albumsObserver;
+    private final MemoryPressureCoordinator memoryPressure;
+    // Выборки по условиям легко пересчитать - отдаём их при нехватке памяти
+    private final MemoryPressureCoordinator.Listener trimListener = stage -> {
+        if (stage.isAtLeast(MemoryPressureCoordinator.Stage.CACHES)) {
+            filterCacheGeneration.incrementAndGet();
+            filterResults.evictAll();
+        }
+    };
 
-    // Для фильтрации
-    private String currentGenre = null;
-    private String currentYear = null;
+    // Поиск: debounce на главном потоке, запрос в одном фоновом потоке
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+    private long searchDebounceMs = Constants.SEARCH_DEBOUNCE_MS;
+    private long searchSequence = 0; // меняется только на главном потоке
+    private Runnable pendingSearch;
+    private Future<?> runningSearch;
 
     public CatalogViewModel(@NonNull Application application) {
         super(application);
-        albumRepository = new AlbumRepository(application);
+        albumRepository = AppContainer.from(application).getAlbumRepository();
+        searchIndex = AlbumSearchIndex.getInstance(application);
+        facetRepository = FacetRepository.getInstance(application);
         albums = new MediatorLiveData<>();
+
+        // Любое изменение albums делает закешированные выборки устаревшими
+        database = AppDatabase.getInstance(application);
+        albumsObserver = new InvalidationTracker.Observer("albums") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                filterCacheGeneration.incrementAndGet();
+                filterResults.evictAll();
+            }
+        };
+        database.getInvalidationTracker().addObserver(albumsObserver);
+
+        memoryPressure = AppContainer.from(application).getMemoryPressure();
+        memoryPressure.register(trimListener);
     }
 
-    public LiveData<Resource<List<AlbumEntity>>> getAlbums() {
+    public LiveData<Resource<List<AlbumListItem>>> getAlbums() {
         return albums;
     }
 
@@ -37,90 +100,264 @@ public class CatalogViewModel extends AndroidViewModel {
      * Загрузка альбомов (с кешем и синхронизацией)
      */
     public void loadAlbums() {
-        if (currentSource != null) {
-            albums.removeSource(currentSource);
+        if (!isUnfiltered(currentFilter)) {
+            // Например, после пересоздания фрагмента - показываем выбранные условия
+            applyFilter(currentFilter);
+            return;
         }
-
-        currentSource = albumRepository.loadAlbums();
-        albums.addSource(currentSource, albums::setValue);
+        switchSource(albumRepository.loadAlbums());
     }
 
     /**
      * Принудительное обновление (Pull-to-Refresh)
      */
     public void forceRefresh() {
-        if (currentSource != null) {
-            albums.removeSource(currentSource);
-        }
-
-        currentSource = albumRepository.forceRefresh();
-        albums.addSource(currentSource, albums::setValue);
+        switchSource(albumRepository.forceRefresh());
     }
 
     /**
-     * Поиск альбомов (офлайн)
+     * Ввод в поле поиска (на каждое нажатие клавиши).
+     * Запрос уходит только после паузы searchDebounceMs; предыдущий
+     * незавершённый поиск отменяется, а устаревший результат не показывается.
+     * Выбранные жанр и год при этом сохраняются.
      */
-    public void searchAlbums(String query) {
-        if (currentSource != null) {
-            albums.removeSource(currentSource);
+    public void onSearchQueryChanged(String query) {
+        final long keystrokeAt = SystemClock.elapsedRealtime();
+        String text = query.trim();
+        if (text.length() < Constants.SEARCH_MIN_QUERY_LENGTH) {
+            // Пустая или слишком короткая строка - текстового условия нет,
+            // жанр и год применяются сразу (если текст до этого был)
+            AlbumFilter filter = currentFilter.withText(null);
+            if (!filter.equals(currentFilter)) {
+                applyFilter(filter, keystrokeAt);
+            }
+            return;
         }
 
-        currentSource = albumRepository.searchAlbums(query);
-        albums.addSource(currentSource, albums::setValue);
+        final long sequence = cancelSearch();
+        final AlbumFilter filter = currentFilter.withText(text);
+        currentFilter = filter;
+        pendingSearch = () -> {
+            pendingSearch = null;
+            runFilter(filter, sequence, keystrokeAt);
+        };
+        mainHandler.postDelayed(pendingSearch, searchDebounceMs);
+    }
+
+    public void setSearchDebounceMs(long debounceMs) {
+        this.searchDebounceMs = Math.max(0, debounceMs);
     }
 
     /**
-     * Фильтрация по жанру
+     * Фильтрация по жанру (текст и год сохраняются)
      */
     public void filterByGenre(String genre) {
-        if (currentSource != null) {
-            albums.removeSource(currentSource);
-        }
+        applyFilter(currentFilter.withGenres(Collections.singleton(genre)));
+    }
 
-        currentGenre = genre;
-        currentSource = albumRepository.getAlbumsByGenre(genre);
-        albums.addSource(currentSource, albums::setValue);
+    public void clearGenreFilter() {
+        applyFilter(currentFilter.withGenres(Collections.emptySet()));
     }
 
     /**
-     * Фильтрация по году
+     * Фильтрация по году (текст и жанр сохраняются)
      */
     public void filterByYear(String year) {
-        if (currentSource != null) {
-            albums.removeSource(currentSource);
+        Integer value = parseYear(year);
+        if (value == null) {
+            Log.w(TAG, "⚠️ Not a year: " + year);
+            return;
         }
+        applyFilter(currentFilter.withYearRange(value, value));
+    }
 
-        currentYear = year;
-        currentSource = albumRepository.getAlbumsByYear(year);
-        albums.addSource(currentSource, albums::setValue);
+    public void clearYearFilter() {
+        applyFilter(currentFilter.withYearRange(null, null));
     }
 
     /**
-     * Очистить фильтры
+     * Очистить фильтры (строка поиска остаётся)
      */
     public void clearFilters() {
-        currentGenre = null;
-        currentYear = null;
-        loadAlbums();
+        applyFilter(AlbumFilter.EMPTY
+                .withText(currentFilter.getText())
+                .withSortOrder(currentFilter.getSortOrder()));
     }
 
     public String getCurrentGenre() {
-        return currentGenre;
+        return currentFilter.getGenres().isEmpty()
+                ? null
+                : currentFilter.getGenres().iterator().next();
     }
 
     public String getCurrentYear() {
-        return currentYear;
+        Integer minYear = currentFilter.getMinYear();
+        return minYear != null && minYear.equals(currentFilter.getMaxYear())
+                ? String.valueOf(minYear)
+                : null;
     }
 
-    public LiveData<List<AlbumEntity>> getAllAlbumsFromDb() {
-        return albumRepository.getAllAlbumsFromDb();
+    public AlbumFilter getCurrentFilter() {
+        return currentFilter;
     }
 
-    @Override
-    protected void onCleared() {
-        super.onCleared();
+    /**
+     * Жанры и годы с количеством альбомов для листов фильтров
+     */
+    public LiveData<AlbumFacets> getFacets() {
+        return facetRepository.getFacets();
+    }
+
+    /**
+     * Применяет набор условий сразу (без debounce).
+     * Пустой фильтр с обычной сортировкой - это полный каталог с синхронизацией.
+     */
+    private void applyFilter(AlbumFilter filter) {
+        applyFilter(filter, SystemClock.elapsedRealtime());
+    }
+
+    private void applyFilter(AlbumFilter filter, long requestedAt) {
+        final long sequence = cancelSearch();
+        currentFilter = filter;
+
+        if (isUnfiltered(filter)) {
+            switchSource(albumRepository.loadAlbums());
+            return;
+        }
+        runFilter(filter, sequence, requestedAt);
+    }
+
+    private static boolean isUnfiltered(AlbumFilter filter) {
+        return filter.isEmpty() && filter.getSortOrder() == AlbumFilter.SortOrder.NEWEST_ADDED;
+    }
+
+    /**
+     * Результат из кеша - сразу, иначе один запрос в фоновом потоке.
+     * requestedAt - нажатие клавиши или выбор фильтра: задержка в логе
+     * считается от него, вместе с debounce
+     */
+    private void runFilter(AlbumFilter filter, long sequence, long requestedAt) {
+        // Результаты фильтра не должны перетираться загрузкой каталога
+        detachSource();
+
+        List<AlbumListItem> cached = filterResults.get(filter);
+        if (cached != null) {
+            albums.setValue(Resource.success(cached));
+            Log.d(TAG, "⚡ Filter cache hit: " + filter + ", "
+                    + (SystemClock.elapsedRealtime() - requestedAt) + " ms since input");
+            return;
+        }
+
+        final long cacheGeneration = filterCacheGeneration.get();
+
+        runningSearch = searchExecutor.submit(() -> {
+            List<AlbumListItem> result;
+            try {
+                result = filter.getText() != null
+                        ? matchText(filter)
+                        // Жанры, годы и сортировка - одним запросом по индексам albums
+                        : albumRepository.filterAlbumsSync(filter);
+            } catch (InterruptedException e) {
+                return; // поиск отменён более новым
+            }
+            final List<AlbumListItem> published = Collections.unmodifiableList(result);
+
+            // Не кешируем результат, если таблица успела измениться во время запроса
+            if (cacheGeneration == filterCacheGeneration.get()) {
+                filterResults.put(filter, published);
+            }
+
+            // Публикуем на главном потоке и только если запрос всё ещё актуален
+            mainHandler.post(() -> {
+                if (sequence != searchSequence) {
+                    Log.d(TAG, "⏭️ Dropped stale filter result: " + filter);
+                    return;
+                }
+                albums.setValue(Resource.success(published));
+                Log.d(TAG, "🔍 " + filter + ": " + published.size() + " albums, "
+                        + (SystemClock.elapsedRealtime() - requestedAt) + " ms since input");
+            });
+        });
+    }
+
+    /**
+     * Текст всегда сопоставляется триграммным индексом (без диакритики, с опечатками),
+     * с жанрами и годами или без них. Остальные условия - SQL, результаты
+     * пересекаются по id в порядке релевантности индекса
+     */
+    private List<AlbumListItem> matchText(AlbumFilter filter) throws InterruptedException {
+        if (!searchIndex.awaitReady()) {
+            Log.w(TAG, "⚠️ Search index unavailable: " + filter);
+            return Collections.emptyList();
+        }
+        List<AlbumListItem> matches = searchIndex.search(filter.getText());
+
+        AlbumFilter rest = filter.withText(null);
+        if (isUnfiltered(rest)) {
+            return matches;
+        }
+
+        List<AlbumListItem> allowed = albumRepository.filterAlbumsSync(rest);
+        Set<String> allowedIds = new HashSet<>(allowed.size() * 2);
+        for (AlbumListItem album : allowed) {
+            allowedIds.add(album.getId());
+        }
+        List<AlbumListItem> result = new ArrayList<>(Math.min(matches.size(), allowed.size()));
+        for (AlbumListItem album : matches) {
+            if (allowedIds.contains(album.getId())) {
+                result.add(album);
+            }
+        }
+        return result;
+    }
+
+    private void switchSource(LiveData<Resource<List<AlbumListItem>>> source) {
+        // Любой новый источник делает текущий поиск устаревшим
+        cancelSearch();
+        detachSource();
+
+        currentSource = source;
+        albums.addSource(currentSource, albums::setValue);
+    }
+
+    private void detachSource() {
         if (currentSource != null) {
             albums.removeSource(currentSource);
+            currentSource = null;
+        }
+    }
+
+    private static Integer parseYear(String year) {
+        try {
+            return year != null ? Integer.valueOf(year.trim()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Отменяет отложенный и выполняющийся поиск.
+     * @return номер нового поколения поиска
+     */
+    private long cancelSearch() {
+        if (pendingSearch != null) {
+            mainHandler.removeCallbacks(pendingSearch);
+            pendingSearch = null;
+        }
+        if (runningSearch != null) {
+            runningSearch.cancel(true);
+            runningSearch = null;
         }
+        return ++searchSequence;
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        cancelSearch();
+        searchExecutor.shutdownNow();
+        database.getInvalidationTracker().removeObserver(albumsObserver);
+        memoryPressure.unregister(trimListener);
+        detachSource();
     }
-}
\ No newline at end of file
+}
@@ -7,28 +7,67 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.core.util.ObjectsCompat;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
 import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
 import com.bumptech.glide.request.RequestOptions;
 import com.example.spotify_kp.R;
-import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.model.AlbumListItem;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class AlbumAdapter extends RecyclerView.Adapter<AlbumAdapter.AlbumViewHolder> {
+/**
+ * Адаптер сетки альбомов.
+ * Списки сравниваются через DiffUtil в фоновом потоке (AsyncListDiffer),
+ * поэтому при новой странице или новом результате поиска перерисовываются
+ * только изменившиеся карточки, а не вся сетка.
+ */
+public class AlbumAdapter extends ListAdapter<AlbumListItem, AlbumAdapter.AlbumViewHolder> {
+
+    // Одни и те же опции Glide для всех карточек — не создаём их на каждый bind
+    private static final RequestOptions COVER_OPTIONS = new RequestOptions()
+            .transform(new RoundedCorners(16))
+            .placeholder(R.drawable.ic_music)
+            .error(R.drawable.ic_music);
+
+    static final DiffUtil.ItemCallback<AlbumListItem> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<AlbumListItem>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull AlbumListItem oldItem, @NonNull AlbumListItem newItem) {
+                    return oldItem.getId().equals(newItem.getId());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull AlbumListItem oldItem, @NonNull AlbumListItem newItem) {
+                    // Сравниваем только то, что реально отображается в карточке
+                    return ObjectsCompat.equals(oldItem.getTitle(), newItem.getTitle())
+                            && ObjectsCompat.equals(oldItem.getArtist(), newItem.getArtist())
+                            && ObjectsCompat.equals(oldItem.getCoverUrl(), newItem.getCoverUrl());
+                }
+            };
 
-    private List<AlbumEntity> albums = new ArrayList<>();
+    private final RequestManager glide;
     private OnAlbumClickListener listener;
 
     public interface OnAlbumClickListener {
-        void onAlbumClick(AlbumEntity album);
+        void onAlbumClick(AlbumListItem album);
     }
 
-    public AlbumAdapter(OnAlbumClickListener listener) {
+    /**
+     * @param glide Glide.with(fragment) экрана со списком: обложки живут и
+     *              встают на паузу вместе с ним, а не с activity
+     */
+    public AlbumAdapter(RequestManager glide, OnAlbumClickListener listener) {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).build());
+        this.glide = glide;
         this.listener = listener;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -41,18 +80,34 @@ public class AlbumAdapter extends RecyclerView.Adapter<AlbumAdapter.AlbumViewHol
 
     @Override
     public void onBindViewHolder(@NonNull AlbumViewHolder holder, int position) {
-        AlbumEntity album = albums.get(position);
-        holder.bind(album, listener);
+        AlbumListItem album = getItem(position);
+        holder.bind(album, glide, listener);
     }
 
     @Override
-    public int getItemCount() {
-        return albums.size();
+    public long getItemId(int position) {
+        return stableIdOf(getItem(position).getId());
     }
 
-    public void setAlbums(List<AlbumEntity> albums) {
-        this.albums = albums != null ? albums : new ArrayList<>();
-        notifyDataSetChanged();
+    /**
+     * Передаёт новый список в differ.
+     * Список копируется: differ требует, чтобы переданный список больше не изменялся.
+     */
+    public void setAlbums(List<AlbumListItem> albums) {
+        submitList(albums != null ? new ArrayList<>(albums) : new ArrayList<>());
+    }
+
+    /**
+     * Стабильный 64-битный id из Spotify id альбома (FNV-1a).
+     * String.hashCode() даёт только 32 бита и заметно чаще коллидирует.
+     */
+    static long stableIdOf(String spotifyId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < spotifyId.length(); i++) {
+            hash ^= spotifyId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
     }
 
     static class AlbumViewHolder extends RecyclerView.ViewHolder {
@@ -67,17 +122,14 @@ public class AlbumAdapter extends RecyclerView.Adapter<AlbumAdapter.AlbumViewHol
             artistName = itemView.findViewById(R.id.artistName);
         }
 
-        public void bind(AlbumEntity album, OnAlbumClickListener listener) {
+        public void bind(AlbumListItem album, RequestManager glide, OnAlbumClickListener listener) {
             albumTitle.setText(album.getTitle());
             artistName.setText(album.getArtist());
 
             // Загрузка обложки с закругленными углами
-            Glide.with(itemView.getContext())
+            glide
                     .load(album.getCoverUrl())
-                    .apply(new RequestOptions()
-                            .transform(new RoundedCorners(16))
-                            .placeholder(R.drawable.ic_music)
-                            .error(R.drawable.ic_music))
+                    .apply(COVER_OPTIONS)
                     .into(albumCover);
 
             // Клик на всю карточку
@@ -88,4 +140,4 @@ public class AlbumAdapter extends RecyclerView.Adapter<AlbumAdapter.AlbumViewHol
             });
         }
     }
-}
\ No newline at end of file
+}
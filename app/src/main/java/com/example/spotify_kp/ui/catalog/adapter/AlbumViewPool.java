@@ -0,0 +1,125 @@
+package com.example.spotify_kp.ui.catalog.adapter;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+
+/**
+ * Общий пул карточек item_album для сеток каталога и новинок.
+ *
+ * Живёт столько же, сколько MainActivity. После первой сетки пул в моменты
+ * простоя главного потока (по одной карточке за раз) дозаполняется до
+ * PREINFLATE_COUNT, так что первая показанная вкладка новинок берёт готовые
+ * view и ничего не inflate'ит. Промахи пула = карточки, созданные по требованию.
+ */
+public class AlbumViewPool extends RecyclerView.RecycledViewPool {
+    private static final String TAG = "AlbumViewPool";
+
+    // Экран сетки в 2 колонки - до 16 карточек вместе с частично видимыми
+    private static final int PREINFLATE_COUNT = 16;
+    private static final int MAX_ALBUM_VIEWS = 24;
+    private static final int VIEW_TYPE_ALBUM = 0;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private Context context;
+    private RecyclerView inflateParent;
+    private AlbumAdapter inflateAdapter;
+    private boolean preinflateStarted = false;
+    private long preinflateTimeMs = 0;
+    private int preinflated = 0;
+    private int misses = 0;
+
+    private final MessageQueue.IdleHandler preinflater = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            if (context == null || getRecycledViewCount(VIEW_TYPE_ALBUM) >= PREINFLATE_COUNT) {
+                finishPreinflate();
+                return false;
+            }
+
+            long start = SystemClock.uptimeMillis();
+            putRecycledView(createHolder());
+            preinflateTimeMs += SystemClock.uptimeMillis() - start;
+            preinflated++;
+
+            // Следующая карточка - в следующий простой, а не подряд в этом
+            mainHandler.post(() -> Looper.myQueue().addIdleHandler(this));
+            return false;
+        }
+    };
+
+    public AlbumViewPool() {
+        setMaxRecycledViews(VIEW_TYPE_ALBUM, MAX_ALBUM_VIEWS);
+    }
+
+    /**
+     * Подключить сетку к пулу. Вызывать до setAdapter: пул без подключённых
+     * адаптеров очищается при первом setAdapter
+     */
+    public void attach(RecyclerView recyclerView) {
+        recyclerView.setRecycledViewPool(this);
+        if (!preinflateStarted) {
+            preinflateStarted = true;
+            context = recyclerView.getContext();
+            // Первая сетка сейчас в setAdapter - заполняем пул, когда она уже подключена
+            mainHandler.post(() -> Looper.myQueue().addIdleHandler(preinflater));
+        }
+    }
+
+    @Override
+    public RecyclerView.ViewHolder getRecycledView(int viewType) {
+        RecyclerView.ViewHolder holder = super.getRecycledView(viewType);
+        if (holder == null) {
+            misses++;
+        }
+        return holder;
+    }
+
+    /**
+     * Сколько карточек сетки создали сами (пул был пуст)
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Нехватка памяти или MainActivity.onDestroy: выбросить карточки,
+     * больше не дозаполнять пул и не держать контекст
+     */
+    public void release() {
+        Looper.myQueue().removeIdleHandler(preinflater);
+        context = null;
+        inflateParent = null;
+        inflateAdapter = null;
+        clear();
+    }
+
+    private RecyclerView.ViewHolder createHolder() {
+        if (inflateParent == null) {
+            // Родитель-сетка только ради LayoutParams карточки, как в настоящем списке
+            inflateParent = new RecyclerView(context);
+            inflateParent.setLayoutManager(new GridLayoutManager(context, 2));
+            // Адаптер только создаёт карточки, bind делают адаптеры сеток
+            inflateAdapter = new AlbumAdapter(Glide.with(context), null);
+        }
+        return inflateAdapter.createViewHolder(inflateParent, VIEW_TYPE_ALBUM);
+    }
+
+    private void finishPreinflate() {
+        if (preinflated > 0) {
+            Log.d(TAG, "🧱 Pre-inflated " + preinflated + " item_album views in "
+                    + preinflateTimeMs + " ms (pool: " + getRecycledViewCount(VIEW_TYPE_ALBUM) + ")");
+        }
+        inflateParent = null;
+        inflateAdapter = null;
+    }
+}
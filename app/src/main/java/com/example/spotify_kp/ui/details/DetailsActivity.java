@@ -1,36 +1,50 @@
 package com.example.spotify_kp.ui.details;
 
 import android.os.Bundle;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.View;
 import android.widget.ImageView;
-import android.widget.LinearLayout;
 import android.widget.ProgressBar;
-import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.ConcatAdapter;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.example.spotify_kp.AppContainer;
 import com.example.spotify_kp.R;
+import com.example.spotify_kp.data.local.AppDatabase;
 import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.entity.TrackEntity;
 import com.example.spotify_kp.data.repository.FavoriteRepository;
+import com.example.spotify_kp.metrics.FrameMetricsRecorder;
+import com.example.spotify_kp.ui.details.adapter.AlbumHeaderAdapter;
+import com.example.spotify_kp.ui.details.adapter.TrackAdapter;
 import com.example.spotify_kp.ui.favorites.dialog.AddToFavoriteDialog;
 import com.example.spotify_kp.ui.main.SharedViewModel;
 import com.example.spotify_kp.utils.Constants;
+import com.example.spotify_kp.utils.Resource;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
+import java.util.List;
+
 public class DetailsActivity extends AppCompatActivity {
 
     private static final String TAG = "DetailsActivity";
 
+    // Примерно столько строк треков помещается на экран под шапкой
+    static final int PREINFLATE_TRACK_VIEWS = 8;
+
     private ImageView albumCover;
-    private TextView albumTitle;
-    private TextView artistName;
-    private TextView albumInfo;
-    private TextView tracksHeader;
-    private LinearLayout tracksContainer;
+    private RecyclerView tracksRecyclerView;
+    private AlbumHeaderAdapter headerAdapter;
+    private TrackAdapter trackAdapter;
     private ProgressBar progressBar;
     private FloatingActionButton fabFavorite;
     private ImageView backButton;
@@ -48,6 +62,7 @@ public class DetailsActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_details);
+        FrameMetricsRecorder.get().track(this, "details");
 
         albumId = getIntent().getStringExtra(Constants.KEY_ALBUM_ID);
 
@@ -60,11 +75,13 @@ public class DetailsActivity extends AppCompatActivity {
         Log.d(TAG, "🎵 Opening album: " + albumId);
 
         initViews();
+        setupTracksList();
         setupViewModels();
         setupFavoriteRepository();
         setupObservers();
 
         viewModel.loadAlbumDetails(albumId);
+        viewModel.loadTracks(albumId);
     }
 
     @Override
@@ -78,11 +95,7 @@ public class DetailsActivity extends AppCompatActivity {
 
     private void initViews() {
         albumCover = findViewById(R.id.albumCover);
-        albumTitle = findViewById(R.id.albumTitle);
-        artistName = findViewById(R.id.artistName);
-        albumInfo = findViewById(R.id.albumInfo);
-        tracksHeader = findViewById(R.id.tracksHeader);
-        tracksContainer = findViewById(R.id.tracksContainer);
+        tracksRecyclerView = findViewById(R.id.tracksRecyclerView);
         progressBar = findViewById(R.id.progressBar);
         fabFavorite = findViewById(R.id.fabFavorite);
         backButton = findViewById(R.id.backButton);
@@ -93,6 +106,32 @@ public class DetailsActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Шапка и треки - один RecyclerView через ConcatAdapter.
+     * Типы view общие (isolateViewTypes = false), поэтому заранее созданные
+     * ViewHolder'ы треков из пула подходят адаптеру без перемаппинга.
+     */
+    private void setupTracksList() {
+        headerAdapter = new AlbumHeaderAdapter();
+        trackAdapter = new TrackAdapter();
+
+        ConcatAdapter.Config config = new ConcatAdapter.Config.Builder()
+                .setIsolateViewTypes(false)
+                .build();
+
+        tracksRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        tracksRecyclerView.setAdapter(new ConcatAdapter(config, headerAdapter, trackAdapter));
+        FrameMetricsRecorder.get().trackScrolling(tracksRecyclerView);
+
+        // Пока альбом грузится из БД - создаём строки треков на idle главного потока
+        Looper.myQueue().addIdleHandler(() -> {
+            if (isFinishing() || trackAdapter.getItemCount() > 0) {
+                return false;
+            }
+            return trackAdapter.preinflate(tracksRecyclerView, PREINFLATE_TRACK_VIEWS);
+        });
+    }
+
     private void setupViewModels() {
         viewModel = new ViewModelProvider(this).get(DetailsViewModel.class);
 
@@ -108,7 +147,7 @@ public class DetailsActivity extends AppCompatActivity {
     }
 
     private void setupFavoriteRepository() {
-        favoriteRepository = new FavoriteRepository(this);
+        favoriteRepository = AppContainer.from(this).getFavoriteRepository();
     }
 
     private void setupObservers() {
@@ -135,6 +174,19 @@ public class DetailsActivity extends AppCompatActivity {
             }
         });
 
+        // Треки - из памяти / Room / API (только при первом открытии альбома)
+        viewModel.getTracks().observe(this, resource -> {
+            if (resource == null) {
+                return;
+            }
+
+            if (resource.getStatus() == Resource.Status.SUCCESS && resource.getData() != null) {
+                showTracks(resource.getData());
+            } else if (resource.getStatus() == Resource.Status.ERROR) {
+                Log.w(TAG, "⚠️ Tracks not loaded: " + resource.getMessage());
+            }
+        });
+
         // Проверяем статус избранного
         checkFavoriteStatus();
     }
@@ -143,7 +195,7 @@ public class DetailsActivity extends AppCompatActivity {
         Log.d(TAG, "🔍 Checking favorite status for: " + albumId);
 
         // 🔥 Проверяем в фоновом потоке чтобы не блокировать UI
-        new Thread(() -> {
+        AppDatabase.databaseExecutor.execute(() -> {
             boolean isFav = favoriteRepository.isAlbumFavoriteSync(albumId);
 
             // Обновляем UI в главном потоке
@@ -152,18 +204,14 @@ public class DetailsActivity extends AppCompatActivity {
                 updateFabIcon();
                 Log.d(TAG, "❤️ Is favorite: " + isFavorite);
             });
-        }).start();
+        });
     }
 
     private void displayAlbumDetails(AlbumEntity album) {
         currentAlbumTitle = album.getTitle();
         currentArtistName = album.getArtist();
 
-        albumTitle.setText(currentAlbumTitle);
-        artistName.setText(currentArtistName);
-
-        String year = album.getYear() != null ? album.getYear() : "Unknown";
-        albumInfo.setText(year + " • " + album.getTotalTracks() + " tracks • " + album.getGenre());
+        headerAdapter.setAlbum(album);
 
         // Загружаем обложку
         Glide.with(this)
@@ -172,44 +220,24 @@ public class DetailsActivity extends AppCompatActivity {
                 .error(R.drawable.ic_music)
                 .into(albumCover);
 
-        // Показываем секцию треков
-        tracksHeader.setVisibility(View.VISIBLE);
-        tracksContainer.setVisibility(View.VISIBLE);
-
-        // Генерируем треки
-        generateSampleTracks(album.getTotalTracks(), album.getArtist());
+        trackAdapter.setArtistName(album.getArtist());
 
         // Настраиваем FAB
         setupFabListener();
     }
 
-    private void generateSampleTracks(int trackCount, String artistName) {
-        tracksContainer.removeAllViews();
-
-        String[] trackNames = {
-                "Lost Heart", "Wild Dreams", "Golden Lights", "Silent Soul", "Electric Fire",
-                "Broken Time", "Midnight Rain", "Endless Stars", "Sacred Night", "Fallen Love"
-        };
-
-        for (int i = 1; i <= Math.min(trackCount, 10); i++) {
-            View trackView = getLayoutInflater().inflate(R.layout.item_track_detailed, tracksContainer, false);
-
-            TextView trackNumber = trackView.findViewById(R.id.trackNumber);
-            TextView trackName = trackView.findViewById(R.id.trackName);
-            TextView trackArtist = trackView.findViewById(R.id.trackArtist);
-            TextView trackDuration = trackView.findViewById(R.id.trackDuration);
-
-            trackNumber.setText(String.valueOf(i));
-            trackName.setText(trackNames[i % trackNames.length]);
-            trackArtist.setText(artistName);
-
-            // Случайная длительность
-            int minutes = 2 + (int)(Math.random() * 3);
-            int seconds = (int)(Math.random() * 60);
-            trackDuration.setText(String.format("%d:%02d", minutes, seconds));
-
-            tracksContainer.addView(trackView);
-        }
+    /**
+     * Отдаёт треки адаптеру и логирует время до первого кадра со списком
+     * (для сравнения альбомов на 10 / 50 / 200 треков).
+     */
+    private void showTracks(List<TrackEntity> tracks) {
+        long start = SystemClock.elapsedRealtime();
+        trackAdapter.setTracks(tracks);
+
+        Choreographer.getInstance().postFrameCallback(frameTimeNanos ->
+                tracksRecyclerView.post(() -> Log.d(TAG, "⏱️ Tracks first frame: "
+                        + tracks.size() + " tracks in "
+                        + (SystemClock.elapsedRealtime() - start) + " ms")));
     }
 
     private void setupFabListener() {
@@ -218,7 +246,7 @@ public class DetailsActivity extends AppCompatActivity {
                 // Удалить из избранного
                 Log.d(TAG, "🗑️ Removing from favorites");
 
-                new Thread(() -> {
+                AppDatabase.databaseExecutor.execute(() -> {
                     boolean success = favoriteRepository.removeFromFavoritesSync(albumId);
 
                     runOnUiThread(() -> {
@@ -235,7 +263,7 @@ public class DetailsActivity extends AppCompatActivity {
                             Toast.makeText(this, "Failed to remove", Toast.LENGTH_SHORT).show();
                         }
                     });
-                }).start();
+                });
 
             } else {
                 // Добавить в избранное
@@ -253,7 +281,7 @@ public class DetailsActivity extends AppCompatActivity {
                 (comment, rating) -> {
                     Log.d(TAG, "💾 Saving favorite with rating: " + rating);
 
-                    new Thread(() -> {
+                    AppDatabase.databaseExecutor.execute(() -> {
                         boolean success = favoriteRepository.addToFavoritesSync(albumId, comment, rating);
 
                         runOnUiThread(() -> {
@@ -270,7 +298,7 @@ public class DetailsActivity extends AppCompatActivity {
                                 Toast.makeText(this, "Failed to add", Toast.LENGTH_SHORT).show();
                             }
                         });
-                    }).start();
+                    });
                 }
         );
         dialog.show();
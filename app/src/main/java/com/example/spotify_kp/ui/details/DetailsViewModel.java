@@ -7,26 +7,41 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 
+import com.example.spotify_kp.AppContainer;
 import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.entity.TrackEntity;
 import com.example.spotify_kp.data.repository.AlbumRepository;
+import com.example.spotify_kp.data.repository.TrackRepository;
 import com.example.spotify_kp.utils.Resource;
 
+import java.util.List;
+
 public class DetailsViewModel extends AndroidViewModel {
 
     private AlbumRepository albumRepository;
+    private TrackRepository trackRepository;
     private MediatorLiveData<Resource<AlbumEntity>> albumDetails;
     private LiveData<Resource<AlbumEntity>> currentSource;
+    private MediatorLiveData<Resource<List<TrackEntity>>> tracks;
+    private LiveData<Resource<List<TrackEntity>>> tracksSource;
 
     public DetailsViewModel(@NonNull Application application) {
         super(application);
-        albumRepository = new AlbumRepository(application);
+        AppContainer container = AppContainer.from(application);
+        albumRepository = container.getAlbumRepository();
+        trackRepository = container.getTrackRepository();
         albumDetails = new MediatorLiveData<>();
+        tracks = new MediatorLiveData<>();
     }
 
     public LiveData<Resource<AlbumEntity>> getAlbumDetails() {
         return albumDetails;
     }
 
+    public LiveData<Resource<List<TrackEntity>>> getTracks() {
+        return tracks;
+    }
+
     public void loadAlbumDetails(String albumId) {
         if (currentSource != null) {
             albumDetails.removeSource(currentSource);
@@ -36,11 +51,26 @@ public class DetailsViewModel extends AndroidViewModel {
         albumDetails.addSource(currentSource, albumDetails::setValue);
     }
 
+    /**
+     * Треки грузятся лениво - только когда открыт экран деталей
+     */
+    public void loadTracks(String albumId) {
+        if (tracksSource != null) {
+            tracks.removeSource(tracksSource);
+        }
+
+        tracksSource = trackRepository.getTracksForAlbum(albumId);
+        tracks.addSource(tracksSource, tracks::setValue);
+    }
+
     @Override
     protected void onCleared() {
         super.onCleared();
         if (currentSource != null) {
             albumDetails.removeSource(currentSource);
         }
+        if (tracksSource != null) {
+            tracks.removeSource(tracksSource);
+        }
     }
 }
\ No newline at end of file
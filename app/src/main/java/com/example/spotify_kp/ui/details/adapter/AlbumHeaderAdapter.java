@@ -0,0 +1,78 @@
+package com.example.spotify_kp.ui.details.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.spotify_kp.R;
+import com.example.spotify_kp.data.local.entity.AlbumEntity;
+
+/**
+ * Шапка экрана деталей (название, артист, инфо, заголовок "Tracks").
+ * Идёт первым элементом в ConcatAdapter перед списком треков,
+ * чтобы весь экран прокручивался одним RecyclerView.
+ */
+public class AlbumHeaderAdapter extends RecyclerView.Adapter<AlbumHeaderAdapter.HeaderViewHolder> {
+
+    public static final int VIEW_TYPE = R.layout.item_details_header;
+
+    private AlbumEntity album;
+
+    public void setAlbum(AlbumEntity album) {
+        boolean hadAlbum = this.album != null;
+        this.album = album;
+
+        if (hadAlbum) {
+            notifyItemChanged(0);
+        } else {
+            notifyItemInserted(0);
+        }
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE;
+    }
+
+    @NonNull
+    @Override
+    public HeaderViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_details_header, parent, false);
+        return new HeaderViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull HeaderViewHolder holder, int position) {
+        holder.bind(album);
+    }
+
+    @Override
+    public int getItemCount() {
+        return album != null ? 1 : 0;
+    }
+
+    static class HeaderViewHolder extends RecyclerView.ViewHolder {
+        private TextView albumTitle;
+        private TextView artistName;
+        private TextView albumInfo;
+
+        public HeaderViewHolder(@NonNull View itemView) {
+            super(itemView);
+            albumTitle = itemView.findViewById(R.id.albumTitle);
+            artistName = itemView.findViewById(R.id.artistName);
+            albumInfo = itemView.findViewById(R.id.albumInfo);
+        }
+
+        public void bind(AlbumEntity album) {
+            albumTitle.setText(album.getTitle());
+            artistName.setText(album.getArtist());
+
+            albumInfo.setText(album.getYearText() + " • " + album.getTotalTracks() + " tracks • " + album.getGenre());
+        }
+    }
+}
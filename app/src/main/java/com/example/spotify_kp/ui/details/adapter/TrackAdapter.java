@@ -6,64 +6,145 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.core.util.ObjectsCompat;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.spotify_kp.R;
-import com.example.spotify_kp.data.remote.dto.TrackItemDto;
+import com.example.spotify_kp.data.local.entity.TrackEntity;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
-public class TrackAdapter extends RecyclerView.Adapter<TrackAdapter.TrackViewHolder> {
+/**
+ * Треки альбома. Новый список сравнивается через DiffUtil в фоне, как в
+ * AlbumAdapter. У альбома на нескольких дисках номер показывается как
+ * "диск-трек": номера треков на каждом диске начинаются с 1.
+ */
+public class TrackAdapter extends ListAdapter<TrackEntity, TrackAdapter.TrackViewHolder> {
 
-    private List<TrackItemDto> tracks = new ArrayList<>();
+    // id layout как тип view - уникален внутри ConcatAdapter с общими типами
+    public static final int VIEW_TYPE = R.layout.item_track_detailed;
+
+    static final DiffUtil.ItemCallback<TrackEntity> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<TrackEntity>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull TrackEntity oldItem, @NonNull TrackEntity newItem) {
+                    // Ключ трека внутри альбома - как в таблице tracks
+                    return oldItem.getDiscNumber() == newItem.getDiscNumber()
+                            && oldItem.getTrackNumber() == newItem.getTrackNumber();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull TrackEntity oldItem, @NonNull TrackEntity newItem) {
+                    return ObjectsCompat.equals(oldItem.getName(), newItem.getName())
+                            && oldItem.getDurationMs() == newItem.getDurationMs();
+                }
+            };
+
+    private String artistName;
+    private boolean multiDisc = false;
+
+    public TrackAdapter() {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).build());
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE;
+    }
 
     @NonNull
     @Override
     public TrackViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
-                .inflate(R.layout.item_track, parent, false);
+                .inflate(R.layout.item_track_detailed, parent, false);
         return new TrackViewHolder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull TrackViewHolder holder, int position) {
-        TrackItemDto track = tracks.get(position);
-        holder.bind(track);
+        TrackEntity track = getItem(position);
+        holder.bind(track, artistName, multiDisc);
     }
 
-    @Override
-    public int getItemCount() {
-        return tracks.size();
+    public void setTracks(List<TrackEntity> tracks) {
+        List<TrackEntity> list = tracks != null ? new ArrayList<>(tracks) : new ArrayList<>();
+        boolean severalDiscs = hasSeveralDiscs(list);
+        if (severalDiscs == multiDisc) {
+            submitList(list);
+            return;
+        }
+        // Формат номера меняется у всех строк, а не только у изменившихся
+        submitList(list, () -> {
+            multiDisc = severalDiscs;
+            notifyItemRangeChanged(0, getItemCount());
+        });
+    }
+
+    public void setArtistName(String artistName) {
+        this.artistName = artistName;
+        if (getItemCount() > 0) {
+            notifyItemRangeChanged(0, getItemCount());
+        }
     }
 
-    public void setTracks(List<TrackItemDto> tracks) {
-        this.tracks = tracks != null ? tracks : new ArrayList<>();
-        notifyDataSetChanged();
+    private static boolean hasSeveralDiscs(List<TrackEntity> tracks) {
+        for (TrackEntity track : tracks) {
+            if (track.getDiscNumber() != 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Кладёт в пул RecyclerView ещё один заранее созданный ViewHolder, пока
+     * в нём меньше poolSize, чтобы первый кадр со списком треков не тратил
+     * время на inflate. DetailsActivity вызывает его на idle главного потока
+     * (по одной строке за раз), пока грузятся данные.
+     * @return true, если пул ещё не заполнен до poolSize
+     */
+    public boolean preinflate(RecyclerView recyclerView, int poolSize) {
+        RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        // Лимит пула по умолчанию - 5, остальные строки пул бы просто выбросил
+        pool.setMaxRecycledViews(VIEW_TYPE, poolSize);
+        if (pool.getRecycledViewCount(VIEW_TYPE) < poolSize) {
+            pool.putRecycledView(createViewHolder(recyclerView, VIEW_TYPE));
+        }
+        return pool.getRecycledViewCount(VIEW_TYPE) < poolSize;
     }
 
     static class TrackViewHolder extends RecyclerView.ViewHolder {
         private TextView trackNumber;
         private TextView trackName;
+        private TextView trackArtist;
         private TextView trackDuration;
 
         public TrackViewHolder(@NonNull View itemView) {
             super(itemView);
             trackNumber = itemView.findViewById(R.id.trackNumber);
             trackName = itemView.findViewById(R.id.trackName);
+            trackArtist = itemView.findViewById(R.id.trackArtist);
             trackDuration = itemView.findViewById(R.id.trackDuration);
         }
 
-        public void bind(TrackItemDto track) {
-            trackNumber.setText(String.valueOf(track.getTrackNumber()));
+        public void bind(TrackEntity track, String artistName, boolean multiDisc) {
+            trackNumber.setText(multiDisc
+                    ? track.getDiscNumber() + "-" + track.getTrackNumber()
+                    : String.valueOf(track.getTrackNumber()));
             trackName.setText(track.getName());
+            trackArtist.setText(artistName);
             trackDuration.setText(formatDuration(track.getDurationMs()));
         }
 
         private String formatDuration(int durationMs) {
             int minutes = (durationMs / 1000) / 60;
             int seconds = (durationMs / 1000) % 60;
-            return String.format("%d:%02d", minutes, seconds);
+            return String.format(Locale.ROOT, "%d:%02d", minutes, seconds);
         }
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,8 @@ package com.example.spotify_kp.ui.favorites;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -19,23 +21,27 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
+import com.example.spotify_kp.AppContainer;
 import com.example.spotify_kp.R;
+import com.example.spotify_kp.data.local.AppDatabase;
 import com.example.spotify_kp.data.local.entity.AlbumEntity;
 import com.example.spotify_kp.data.local.entity.FavoriteEntity;
 import com.example.spotify_kp.data.repository.FavoriteRepository;
+import com.example.spotify_kp.metrics.FrameMetricsRecorder;
 import com.example.spotify_kp.ui.details.DetailsActivity;
 import com.example.spotify_kp.ui.favorites.adapter.FavoriteAdapter;
 import com.example.spotify_kp.ui.favorites.dialog.EditFavoriteDialog;
 import com.example.spotify_kp.ui.main.SharedViewModel;
+import com.example.spotify_kp.ui.main.TabVisibility;
 import com.example.spotify_kp.utils.Constants;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class FavoritesFragment extends Fragment implements FavoriteAdapter.OnFavoriteClickListener {
 
     private static final String TAG = "FavoritesFragment";
 
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
     private RecyclerView recyclerView;
     private ProgressBar progressBar;
     private LinearLayout emptyState;
@@ -43,6 +49,7 @@ public class FavoritesFragment extends Fragment implements FavoriteAdapter.OnFav
 
     private SharedViewModel sharedViewModel; // 🔥 Используем SharedViewModel из MainActivity
     private FavoriteAdapter adapter;
+    private TabVisibility tabVisibility;
     private FavoriteRepository favoriteRepository;
 
     @Nullable
@@ -59,6 +66,7 @@ public class FavoritesFragment extends Fragment implements FavoriteAdapter.OnFav
         Log.d(TAG, "🔧 onViewCreated");
 
         initViews(view);
+        tabVisibility = TabVisibility.attach(this);
         setupSharedViewModel(); // 🔥 КРИТИЧНО: Используем SharedViewModel
         setupFavoriteRepository();
         setupRecyclerView();
@@ -76,6 +84,19 @@ public class FavoritesFragment extends Fragment implements FavoriteAdapter.OnFav
         }
     }
 
+    @Override
+    public void onHiddenChanged(boolean hidden) {
+        super.onHiddenChanged(hidden);
+        if (tabVisibility != null) {
+            tabVisibility.setHidden(hidden);
+        }
+
+        // onResume при show() не вызывается - перечитываем избранное здесь
+        if (!hidden && sharedViewModel != null) {
+            sharedViewModel.loadFavorites();
+        }
+    }
+
     private void initViews(View view) {
         recyclerView = view.findViewById(R.id.recyclerView);
         progressBar = view.findViewById(R.id.progressBar);
@@ -91,56 +112,35 @@ public class FavoritesFragment extends Fragment implements FavoriteAdapter.OnFav
     }
 
     private void setupFavoriteRepository() {
-        favoriteRepository = new FavoriteRepository(requireContext());
+        favoriteRepository = AppContainer.from(requireContext()).getFavoriteRepository();
     }
 
     private void setupRecyclerView() {
-        adapter = new FavoriteAdapter(this);
+        adapter = new FavoriteAdapter(Glide.with(this), this);
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         recyclerView.setAdapter(adapter);
+        tabVisibility.track(recyclerView);
+        FrameMetricsRecorder.get().trackScrolling(recyclerView);
         Log.d(TAG, "✅ RecyclerView setup complete");
     }
 
     private void observeFavorites() {
         showLoading();
 
-        // 🔥 Подписываемся на данные из SharedViewModel
-        sharedViewModel.getFavorites().observe(getViewLifecycleOwner(), favorites -> {
-            Log.d(TAG, "📊 Favorites LiveData updated: " + (favorites != null ? favorites.size() : 0));
+        // 🔥 Строки избранного собирает SharedViewModel (в фоне, на каждое изменение списка)
+        sharedViewModel.getFavoriteItems().observe(tabVisibility, items -> {
+            Log.d(TAG, "💿 Favorite rows ready: " + (items != null ? items.size() : 0));
 
             hideLoading();
 
-            if (favorites == null || favorites.isEmpty()) {
+            if (items == null || items.isEmpty()) {
                 Log.d(TAG, "📭 No favorites found - showing empty state");
+                adapter.setItems(null);
                 showEmpty();
             } else {
-                Log.d(TAG, "📚 Showing " + favorites.size() + " favorites");
-                showContent();
-                loadAlbumsForFavorites(favorites);
-            }
-        });
-    }
-
-    private void loadAlbumsForFavorites(List<FavoriteEntity> favorites) {
-        Log.d(TAG, "🔄 Loading albums for " + favorites.size() + " favorites");
-
-        // Собираем ID альбомов
-        List<String> albumIds = new ArrayList<>();
-        for (FavoriteEntity fav : favorites) {
-            albumIds.add(fav.getAlbumId());
-            Log.d(TAG, "  - Album ID: " + fav.getAlbumId());
-        }
-
-        // Загружаем альбомы через SharedViewModel
-        sharedViewModel.getAlbumsByIds(albumIds).observe(getViewLifecycleOwner(), albums -> {
-            Log.d(TAG, "💿 Albums loaded: " + (albums != null ? albums.size() : 0));
-
-            if (albums != null && !albums.isEmpty()) {
-                adapter.setFavorites(favorites, albums);
+                adapter.setItems(items);
                 showContent();
                 Log.d(TAG, "✅ Adapter updated with data");
-            } else {
-                Log.w(TAG, "⚠️ No albums loaded for favorites");
             }
         });
     }
@@ -182,15 +182,17 @@ public class FavoritesFragment extends Fragment implements FavoriteAdapter.OnFav
                     Log.d(TAG, "✏️ User updated favorite: " + favorite.getAlbumId());
 
                     // Обновляем через Repository
-                    new Thread(() -> {
+                    AppDatabase.databaseExecutor.execute(() -> {
                         favoriteRepository.updateFavoriteSync(favorite.getAlbumId(), comment, rating);
 
-                        // Перезагружаем список через SharedViewModel
-                        requireActivity().runOnUiThread(() -> {
+                        // Перезагружаем список через SharedViewModel; фрагмент мог уже уйти
+                        mainHandler.post(() -> {
                             sharedViewModel.loadFavorites();
-                            Toast.makeText(getContext(), "Favorite updated!", Toast.LENGTH_SHORT).show();
+                            if (isAdded()) {
+                                Toast.makeText(requireContext(), "Favorite updated!", Toast.LENGTH_SHORT).show();
+                            }
                         });
-                    }).start();
+                    });
                 }
         );
         dialog.show();
@@ -8,24 +8,25 @@ import android.widget.RatingBar;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
 import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
 import com.bumptech.glide.request.RequestOptions;
 import com.example.spotify_kp.R;
 import com.example.spotify_kp.data.local.entity.AlbumEntity;
 import com.example.spotify_kp.data.local.entity.FavoriteEntity;
 
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
 
-public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.FavoriteViewHolder> {
+/**
+ * Адаптер избранного.
+ * Принимает готовые {@link FavoriteItem} (собраны в фоне), diff считается асинхронно.
+ */
+public class FavoriteAdapter extends ListAdapter<FavoriteItem, FavoriteAdapter.FavoriteViewHolder> {
 
     public interface OnFavoriteClickListener {
         void onFavoriteClick(FavoriteEntity favorite, AlbumEntity album);
@@ -33,25 +34,38 @@ public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.Favori
         void onEditFavorite(FavoriteEntity favorite, AlbumEntity album);
     }
 
-    private List<FavoriteEntity> favorites = new ArrayList<>();
-    private Map<String, AlbumEntity> albumsMap = new HashMap<>();
+    private static final RequestOptions COVER_OPTIONS = new RequestOptions()
+            .transform(new RoundedCorners(16))
+            .placeholder(R.drawable.ic_music)
+            .error(R.drawable.ic_music);
+
+    private static final DiffUtil.ItemCallback<FavoriteItem> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<FavoriteItem>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull FavoriteItem oldItem, @NonNull FavoriteItem newItem) {
+                    return oldItem.getAlbumId().equals(newItem.getAlbumId());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull FavoriteItem oldItem, @NonNull FavoriteItem newItem) {
+                    return oldItem.hasSameContent(newItem);
+                }
+            };
+
+    private final RequestManager glide;
     private OnFavoriteClickListener listener;
 
-    public FavoriteAdapter(OnFavoriteClickListener listener) {
+    /**
+     * @param glide Glide.with(fragment) вкладки избранного
+     */
+    public FavoriteAdapter(RequestManager glide, OnFavoriteClickListener listener) {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).build());
+        this.glide = glide;
         this.listener = listener;
     }
 
-    public void setFavorites(List<FavoriteEntity> favorites, List<AlbumEntity> albums) {
-        this.favorites = favorites != null ? favorites : new ArrayList<>();
-
-        albumsMap.clear();
-        if (albums != null) {
-            for (AlbumEntity album : albums) {
-                albumsMap.put(album.getId(), album);
-            }
-        }
-
-        notifyDataSetChanged();
+    public void setItems(List<FavoriteItem> items) {
+        submitList(items);
     }
 
     @NonNull
@@ -64,20 +78,10 @@ public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.Favori
 
     @Override
     public void onBindViewHolder(@NonNull FavoriteViewHolder holder, int position) {
-        FavoriteEntity favorite = favorites.get(position);
-        AlbumEntity album = albumsMap.get(favorite.getAlbumId());
-
-        if (album != null) {
-            holder.bind(favorite, album, listener);
-        }
+        holder.bind(getItem(position));
     }
 
-    @Override
-    public int getItemCount() {
-        return favorites.size();
-    }
-
-    static class FavoriteViewHolder extends RecyclerView.ViewHolder {
+    class FavoriteViewHolder extends RecyclerView.ViewHolder {
         private ImageView albumCover;
         private TextView albumTitle;
         private TextView artistName;
@@ -89,6 +93,8 @@ public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.Favori
         private ImageView removeButton;
         private ImageView editButton;
 
+        private FavoriteItem item;
+
         public FavoriteViewHolder(@NonNull View itemView) {
             super(itemView);
             albumCover = itemView.findViewById(R.id.albumCover);
@@ -101,60 +107,51 @@ public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.Favori
             addedDate = itemView.findViewById(R.id.addedDate);
             removeButton = itemView.findViewById(R.id.removeButton);
             editButton = itemView.findViewById(R.id.editButton);
-        }
-
-        public void bind(FavoriteEntity favorite, AlbumEntity album, OnFavoriteClickListener listener) {
-            albumTitle.setText(album.getTitle());
-            artistName.setText(album.getArtist());
-
-            // Year and Genre
-            String yearGenreText = album.getYear() + " • " + album.getGenre();
-            yearGenre.setText(yearGenreText);
-
-            // Rating
-            ratingBar.setRating(favorite.getUserRating());
-            ratingText.setText(String.format(Locale.getDefault(), "%.1f", favorite.getUserRating()));
 
-            // Comment
-            if (favorite.getUserComment() != null && !favorite.getUserComment().isEmpty()) {
-                commentText.setVisibility(View.VISIBLE);
-                commentText.setText(favorite.getUserComment());
-            } else {
-                commentText.setVisibility(View.GONE);
-            }
-
-            // Added Date
-            SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-            String dateText = "Added: " + sdf.format(new Date(favorite.getAddedDate()));
-            addedDate.setText(dateText);
-
-            // Load cover
-            Glide.with(itemView.getContext())
-                    .load(album.getCoverUrl())
-                    .apply(new RequestOptions()
-                            .transform(new RoundedCorners(16))
-                            .placeholder(R.drawable.ic_music)
-                            .error(R.drawable.ic_music))
-                    .into(albumCover);
-
-            // Click listeners
+            // Слушатели вешаем один раз, текущую строку берём из поля item
             itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onFavoriteClick(favorite, album);
+                if (listener != null && item != null) {
+                    listener.onFavoriteClick(item.getFavorite(), item.getAlbum());
                 }
             });
 
             editButton.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onEditFavorite(favorite, album);
+                if (listener != null && item != null) {
+                    listener.onEditFavorite(item.getFavorite(), item.getAlbum());
                 }
             });
 
             removeButton.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onRemoveFavorite(favorite);
+                if (listener != null && item != null) {
+                    listener.onRemoveFavorite(item.getFavorite());
                 }
             });
         }
+
+        public void bind(FavoriteItem item) {
+            this.item = item;
+
+            albumTitle.setText(item.getTitle());
+            artistName.setText(item.getArtist());
+            yearGenre.setText(item.getYearGenreText());
+
+            ratingBar.setRating(item.getRating());
+            ratingText.setText(item.getRatingText());
+
+            if (item.getComment() != null) {
+                commentText.setVisibility(View.VISIBLE);
+                commentText.setText(item.getComment());
+            } else {
+                commentText.setVisibility(View.GONE);
+            }
+
+            addedDate.setText(item.getAddedDateText());
+
+            // Запросы фрагмента-вкладки: на паузе, пока вкладка скрыта
+            glide
+                    .load(item.getCoverUrl())
+                    .apply(COVER_OPTIONS)
+                    .into(albumCover);
+        }
     }
-}
\ No newline at end of file
+}
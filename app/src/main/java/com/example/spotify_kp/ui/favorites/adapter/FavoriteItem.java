@@ -0,0 +1,110 @@
+package com.example.spotify_kp.ui.favorites.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+import androidx.core.util.ObjectsCompat;
+
+import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.entity.FavoriteEntity;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Готовая к показу строка списка избранного.
+ * Все тексты форматируются заранее в фоновом потоке,
+ * onBindViewHolder только раскладывает их по view.
+ */
+public final class FavoriteItem {
+
+    private final FavoriteEntity favorite;
+    private final AlbumEntity album;
+
+    private final String albumId;
+    private final String title;
+    private final String artist;
+    private final String coverUrl;
+    private final String yearGenreText;
+    private final float rating;
+    private final String ratingText;
+    private final String comment;
+    private final String addedDateText;
+
+    private FavoriteItem(FavoriteEntity favorite, AlbumEntity album,
+                         SimpleDateFormat dateFormat, Locale locale) {
+        this.favorite = favorite;
+        this.album = album;
+        this.albumId = album.getId();
+        this.title = album.getTitle();
+        this.artist = album.getArtist();
+        this.coverUrl = album.getCoverUrl();
+        this.yearGenreText = album.getYearText() + " • " + album.getGenre();
+        this.rating = favorite.getUserRating();
+        this.ratingText = String.format(locale, "%.1f", favorite.getUserRating());
+        this.comment = favorite.getUserComment() != null && !favorite.getUserComment().isEmpty()
+                ? favorite.getUserComment()
+                : null;
+        this.addedDateText = "Added: " + dateFormat.format(new Date(favorite.getAddedDate()));
+    }
+
+    /**
+     * Собирает строки в порядке списка favorites.
+     * Избранное без альбома в БД пропускается (раньше такие строки оставались пустыми).
+     */
+    @WorkerThread
+    @NonNull
+    public static List<FavoriteItem> buildList(List<FavoriteEntity> favorites, List<AlbumEntity> albums) {
+        List<FavoriteItem> items = new ArrayList<>();
+        if (favorites == null || albums == null) {
+            return items;
+        }
+
+        Map<String, AlbumEntity> albumsById = new HashMap<>(albums.size() * 2);
+        for (AlbumEntity album : albums) {
+            albumsById.put(album.getId(), album);
+        }
+
+        // SimpleDateFormat не потокобезопасен — один экземпляр на сборку списка
+        Locale locale = Locale.getDefault();
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", locale);
+
+        for (FavoriteEntity favorite : favorites) {
+            AlbumEntity album = albumsById.get(favorite.getAlbumId());
+            if (album != null) {
+                items.add(new FavoriteItem(favorite, album, dateFormat, locale));
+            }
+        }
+        return items;
+    }
+
+    public FavoriteEntity getFavorite() { return favorite; }
+    public AlbumEntity getAlbum() { return album; }
+
+    public String getAlbumId() { return albumId; }
+    public String getTitle() { return title; }
+    public String getArtist() { return artist; }
+    public String getCoverUrl() { return coverUrl; }
+    public String getYearGenreText() { return yearGenreText; }
+    public float getRating() { return rating; }
+    public String getRatingText() { return ratingText; }
+    public String getComment() { return comment; }
+    public String getAddedDateText() { return addedDateText; }
+
+    /**
+     * Сравнение по отображаемому содержимому (для DiffUtil)
+     */
+    boolean hasSameContent(FavoriteItem other) {
+        return rating == other.rating
+                && ObjectsCompat.equals(title, other.title)
+                && ObjectsCompat.equals(artist, other.artist)
+                && ObjectsCompat.equals(coverUrl, other.coverUrl)
+                && ObjectsCompat.equals(yearGenreText, other.yearGenreText)
+                && ObjectsCompat.equals(comment, other.comment)
+                && ObjectsCompat.equals(addedDateText, other.addedDateText);
+    }
+}
@@ -3,7 +3,9 @@ package com.example.spotify_kp.ui.main;
 import android.content.Intent;
 import android.graphics.Color;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
@@ -12,15 +14,21 @@ import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.bumptech.glide.Glide;
+import com.example.spotify_kp.AppContainer;
 import com.example.spotify_kp.R;
 import com.example.spotify_kp.data.remote.RetrofitClient;
 import com.example.spotify_kp.data.repository.AlbumRepository;
+import com.example.spotify_kp.memory.MemoryPressureCoordinator;
+import com.example.spotify_kp.metrics.FrameMetricsRecorder;
 import com.example.spotify_kp.model.User;
+import com.example.spotify_kp.startup.StartupTrace;
 import com.example.spotify_kp.ui.auth.LoginActivity;
 import com.example.spotify_kp.ui.catalog.CatalogFragment;
+import com.example.spotify_kp.ui.catalog.adapter.AlbumViewPool;
 import com.example.spotify_kp.ui.favorites.FavoritesFragment;
 import com.example.spotify_kp.ui.newreleases.NewReleasesFragment;
 import com.example.spotify_kp.ui.profile.ProfileFragment;
@@ -72,15 +80,30 @@ public class MainActivity extends AppCompatActivity {
     private Map<Integer, Fragment> fragmentCache = new HashMap<>();
     private Fragment currentFragment;
 
+    // Карточки item_album общие для сеток каталога и новинок
+    private final AlbumViewPool albumViewPool = new AlbumViewPool();
+
+    private MemoryPressureCoordinator memoryPressure;
+    // Кадры окна относятся к текущей вкладке
+    private FrameMetricsRecorder.ScreenTracker frameTracker;
+    private final MemoryPressureCoordinator.Listener trimListener = stage -> {
+        if (stage.isAtLeast(MemoryPressureCoordinator.Stage.HIDDEN_VIEWS)) {
+            releaseHiddenViews();
+            albumViewPool.release();
+        }
+    };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        StartupTrace.get().begin(StartupTrace.PHASE_MAIN_ACTIVITY);
         setContentView(R.layout.activity_main);
+        frameTracker = FrameMetricsRecorder.get().track(this, "main");
 
         Log.d(TAG, "🚀 MainActivity onCreate");
 
         prefsManager = SharedPrefsManager.getInstance(this);
-        albumRepository = new AlbumRepository(this);
+        albumRepository = AppContainer.from(this).getAlbumRepository();
 
         // 🔥 КРИТИЧНО: Создаём SharedViewModel ОДИН РАЗ при создании Activity
         sharedViewModel = new ViewModelProvider(this).get(SharedViewModel.class);
@@ -91,10 +114,14 @@ public class MainActivity extends AppCompatActivity {
         setupBottomNavigation();
         setupOfflineIndicator();
 
+        memoryPressure = AppContainer.from(this).getMemoryPressure();
+        memoryPressure.register(trimListener);
+
         // Загружаем CatalogFragment по умолчанию
         if (savedInstanceState == null) {
             showFragment(R.id.nav_catalog);
         }
+        StartupTrace.get().end(StartupTrace.PHASE_MAIN_ACTIVITY);
     }
 
     @Override
@@ -120,8 +147,12 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void setupHeader() {
+        StartupTrace.get().begin(StartupTrace.PHASE_SETUP_HEADER);
         setGreeting();
+
+        StartupTrace.get().begin(StartupTrace.PHASE_LOAD_PROFILE);
         loadUserProfile();
+        StartupTrace.get().end(StartupTrace.PHASE_LOAD_PROFILE);
 
         settingsIcon.setOnClickListener(v -> {
             prefsManager.logout();
@@ -130,6 +161,7 @@ public class MainActivity extends AppCompatActivity {
             startActivity(intent);
             finish();
         });
+        StartupTrace.get().end(StartupTrace.PHASE_SETUP_HEADER);
     }
 
     private void setupBottomNavigation() {
@@ -191,20 +223,74 @@ public class MainActivity extends AppCompatActivity {
         // Показываем нужный фрагмент
         if (fragment.isAdded()) {
             // Фрагмент уже добавлен - просто показываем
+            // (view, отпущенный при нехватке памяти, создастся заново)
+            transaction.setMaxLifecycle(fragment, Lifecycle.State.RESUMED);
             transaction.show(fragment);
             Log.d(TAG, "👁️ Shown: " + fragment.getClass().getSimpleName());
         } else {
             // Фрагмент ещё не добавлен - добавляем
             transaction.add(R.id.fragmentContainer, fragment);
             Log.d(TAG, "➕ Added: " + fragment.getClass().getSimpleName());
+            measureFirstShow(transaction, fragment);
         }
 
         transaction.commit();
         currentFragment = fragment;
+        frameTracker.setScreen(fragment.getClass().getSimpleName());
 
         Log.d(TAG, "✅ Current fragment: " + currentFragment.getClass().getSimpleName());
     }
 
+    /**
+     * Первый показ вкладки: время от нажатия до конца первого кадра с ней,
+     * длительность этого кадра и сколько карточек пришлось создать (промахи пула)
+     */
+    private void measureFirstShow(FragmentTransaction transaction, Fragment fragment) {
+        long start = SystemClock.uptimeMillis();
+        int missesBefore = albumViewPool.getMisses();
+        String name = fragment.getClass().getSimpleName();
+
+        // После commit view вкладки создан; сетка раскладывается в ближайшем кадре,
+        // а когда начинается следующий - этот кадр уже отрисован
+        transaction.runOnCommit(() -> Choreographer.getInstance().postFrameCallback(frameStart ->
+                Choreographer.getInstance().postFrameCallback(nextFrame -> {
+                    long frameMs = (System.nanoTime() - frameStart) / 1_000_000;
+                    Log.d(TAG, "⏱️ First show of " + name + ": "
+                            + (SystemClock.uptimeMillis() - start) + " ms total, frame "
+                            + frameMs + " ms, inflated "
+                            + (albumViewPool.getMisses() - missesBefore) + " album views");
+                })));
+    }
+
+    /**
+     * Нехватка памяти: скрытые вкладки опускаются до CREATED - их view уничтожаются,
+     * а сами фрагменты и ViewModel остаются в кеше. Вкладка восстановится в showFragment
+     */
+    private void releaseHiddenViews() {
+        if (isFinishing() || getSupportFragmentManager().isDestroyed()) {
+            return;
+        }
+
+        FragmentTransaction transaction = getSupportFragmentManager().beginTransaction();
+        int released = 0;
+        for (Fragment fragment : fragmentCache.values()) {
+            if (fragment != currentFragment && fragment.isAdded() && fragment.getView() != null) {
+                transaction.setMaxLifecycle(fragment, Lifecycle.State.CREATED);
+                released++;
+            }
+        }
+
+        if (released > 0) {
+            // onTrimMemory может прийти и после onSaveInstanceState
+            transaction.commitAllowingStateLoss();
+            Log.d(TAG, "🧹 Released views of " + released + " hidden fragments");
+        }
+    }
+
+    public AlbumViewPool getAlbumViewPool() {
+        return albumViewPool;
+    }
+
     /**
      * Получить SharedViewModel
      */
@@ -317,9 +403,10 @@ public class MainActivity extends AppCompatActivity {
             } else {
                 SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, HH:mm", Locale.getDefault());
                 String lastSyncStr = sdf.format(new Date(lastSync));
-                long hours = (System.currentTimeMillis() - lastSync) / (1000 * 60 * 60);
+                long age = System.currentTimeMillis() - lastSync;
 
-                if (hours > 24) {
+                // Данные старше max-age политики каталога - обновятся при следующей загрузке
+                if (!albumRepository.getCachePolicy().isFresh(age)) {
                     offlineIndicator.setVisibility(View.VISIBLE);
                     offlineIndicator.setBackgroundColor(Color.parseColor("#66BB6A"));
                     offlineText.setText("🔄 Last sync: " + lastSyncStr);
@@ -333,6 +420,8 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        memoryPressure.unregister(trimListener);
+        albumViewPool.release();
         Log.d(TAG, "💀 MainActivity destroyed");
         Log.d(TAG, "💀 Fragment cache cleared: " + fragmentCache.size() + " fragments");
     }
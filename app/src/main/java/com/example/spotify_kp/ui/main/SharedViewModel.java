@@ -6,17 +6,21 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.example.spotify_kp.AppContainer;
+import com.example.spotify_kp.data.cache.AlbumMemoryCache;
 import com.example.spotify_kp.data.local.AppDatabase;
 import com.example.spotify_kp.data.local.entity.AlbumEntity;
 import com.example.spotify_kp.data.local.entity.FavoriteEntity;
 import com.example.spotify_kp.data.repository.FavoriteRepository;
+import com.example.spotify_kp.ui.favorites.adapter.FavoriteItem;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 🔥 SharedViewModel - ЕДИНСТВЕННЫЙ источник правды для избранных альбомов
@@ -37,16 +41,24 @@ public class SharedViewModel extends AndroidViewModel {
     // 🔥 Единственный источник правды - данные живут здесь
     private MutableLiveData<List<FavoriteEntity>> favoritesLiveData = new MutableLiveData<>(new ArrayList<>());
 
-    // Кеш альбомов для быстрого доступа
-    private Map<String, AlbumEntity> albumsCache = new HashMap<>();
+    // Готовые строки списка избранного, пересобираются на каждое изменение favoritesLiveData
+    private final MediatorLiveData<List<FavoriteItem>> favoriteItems = new MediatorLiveData<>();
+    // Номер последней сборки строк: результат устаревшей сборки не публикуется
+    private final AtomicLong itemsGeneration = new AtomicLong();
+
+    // Общий L1-кеш альбомов (потокобезопасный, ограничен по числу и весу)
+    private final AlbumMemoryCache albumCache;
 
     public SharedViewModel(@NonNull Application application) {
         super(application);
         database = AppDatabase.getInstance(application);
-        repository = new FavoriteRepository(application);
+        repository = AppContainer.from(application).getFavoriteRepository();
+        albumCache = AppContainer.from(application).getAlbumCache();
 
         Log.d(TAG, "🚀 SharedViewModel created (Activity-scoped) - hashCode: " + this.hashCode());
 
+        favoriteItems.addSource(favoritesLiveData, this::buildFavoriteItems);
+
         // Загружаем favorites сразу при создании
         loadFavorites();
     }
@@ -61,7 +73,7 @@ public class SharedViewModel extends AndroidViewModel {
     public void loadFavorites() {
         Log.d(TAG, "📥 Loading favorites from database...");
 
-        new Thread(() -> {
+        AppDatabase.databaseExecutor.execute(() -> {
             try {
                 // Загружаем ВСЕ избранные альбомы пользователя из БД
                 List<FavoriteEntity> favorites = repository.getAllFavoritesSync();
@@ -85,7 +97,7 @@ public class SharedViewModel extends AndroidViewModel {
                 Log.e(TAG, "❌ Error loading favorites: " + e.getMessage(), e);
                 favoritesLiveData.postValue(new ArrayList<>());
             }
-        }).start();
+        });
     }
 
     /**
@@ -103,7 +115,7 @@ public class SharedViewModel extends AndroidViewModel {
     public void addToFavorites(String albumId, String comment, float rating) {
         Log.d(TAG, "➕ Adding to favorites (main thread): " + albumId);
 
-        new Thread(() -> {
+        AppDatabase.databaseExecutor.execute(() -> {
             // СИНХРОННО сохраняем в БД
             boolean success = repository.addToFavoritesSync(albumId, comment, rating);
 
@@ -114,7 +126,7 @@ public class SharedViewModel extends AndroidViewModel {
             } else {
                 Log.e(TAG, "❌ Failed to add to favorites!");
             }
-        }).start();
+        });
     }
 
     /**
@@ -124,20 +136,17 @@ public class SharedViewModel extends AndroidViewModel {
     public void removeFromFavorites(String albumId) {
         Log.d(TAG, "🗑️ Removing from favorites (main thread): " + albumId);
 
-        new Thread(() -> {
+        AppDatabase.databaseExecutor.execute(() -> {
             boolean success = repository.removeFromFavoritesSync(albumId);
 
             if (success) {
-                // Удаляем из кеша
-                albumsCache.remove(albumId);
-
                 Log.d(TAG, "✅ Successfully removed, reloading list...");
                 // Перезагружаем список из БД
                 loadFavorites();
             } else {
                 Log.e(TAG, "❌ Failed to remove from favorites!");
             }
-        }).start();
+        });
     }
 
     /**
@@ -146,11 +155,11 @@ public class SharedViewModel extends AndroidViewModel {
     public void updateFavorite(String albumId, String comment, float rating) {
         Log.d(TAG, "✏️ Updating favorite: " + albumId);
 
-        new Thread(() -> {
+        AppDatabase.databaseExecutor.execute(() -> {
             repository.updateFavoriteSync(albumId, comment, rating);
             // Перезагружаем список
             loadFavorites();
-        }).start();
+        });
     }
 
     /**
@@ -160,50 +169,79 @@ public class SharedViewModel extends AndroidViewModel {
     public LiveData<Boolean> isAlbumFavorite(String albumId) {
         MutableLiveData<Boolean> result = new MutableLiveData<>();
 
-        new Thread(() -> {
+        AppDatabase.databaseExecutor.execute(() -> {
             boolean isFav = repository.isAlbumFavoriteSync(albumId);
             result.postValue(isFav);
             Log.d(TAG, "❓ Is favorite: " + isFav + " for album: " + albumId);
-        }).start();
+        });
 
         return result;
     }
 
     /**
-     * Получить альбомы по списку ID
-     * Использует кеш для оптимизации
+     * Готовые строки списка избранного - подписываться один раз.
+     * Альбомы и форматирование текстов - в фоновом потоке.
      */
-    public LiveData<List<AlbumEntity>> getAlbumsByIds(List<String> albumIds) {
-        MutableLiveData<List<AlbumEntity>> result = new MutableLiveData<>();
-
-        Log.d(TAG, "🔍 Loading " + albumIds.size() + " albums...");
-
-        new Thread(() -> {
-            List<AlbumEntity> albums = new ArrayList<>();
-
-            for (String id : albumIds) {
-                // Проверяем кеш
-                if (albumsCache.containsKey(id)) {
-                    albums.add(albumsCache.get(id));
-                    Log.d(TAG, "💾 Album from cache: " + id);
-                } else {
-                    // Загружаем из БД (синхронно)
-                    AlbumEntity album = database.albumDao().getAlbumByIdSync(id);
-                    if (album != null) {
-                        albums.add(album);
-                        albumsCache.put(id, album);
-                        Log.d(TAG, "💿 Album from DB: " + album.getTitle());
-                    } else {
-                        Log.w(TAG, "⚠️ Album not found in DB: " + id);
-                    }
+    public LiveData<List<FavoriteItem>> getFavoriteItems() {
+        return favoriteItems;
+    }
+
+    /**
+     * Сборки идут параллельно на databaseExecutor; публикуется только последняя,
+     * так что более старая, закончившая позже, не перезапишет свежий список
+     */
+    private void buildFavoriteItems(List<FavoriteEntity> favorites) {
+        long generation = itemsGeneration.incrementAndGet();
+
+        AppDatabase.databaseExecutor.execute(() -> {
+            List<String> albumIds = new ArrayList<>(favorites.size());
+            for (FavoriteEntity fav : favorites) {
+                albumIds.add(fav.getAlbumId());
+            }
+
+            List<FavoriteItem> items = FavoriteItem.buildList(favorites, loadAlbumsSync(albumIds));
+            synchronized (itemsGeneration) {
+                if (generation != itemsGeneration.get()) {
+                    Log.d(TAG, "⏭️ Dropped stale favorite rows (build " + generation + ")");
+                    return;
                 }
+                favoriteItems.postValue(items);
             }
+            Log.d(TAG, "✅ Built " + items.size() + " favorite rows");
+        });
+    }
 
-            result.postValue(albums);
-            Log.d(TAG, "✅ Loaded " + albums.size() + " albums");
-        }).start();
+    private List<AlbumEntity> loadAlbumsSync(List<String> albumIds) {
+        // Один снимок кеша; недостающие (или устаревшие) альбомы - одним запросом
+        long generation = albumCache.currentGeneration();
+        Map<String, AlbumEntity> found = albumCache.getAll(albumIds);
+        List<String> missing = new ArrayList<>();
+        for (String id : albumIds) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<AlbumEntity> loaded = database.albumDao().getAlbumsByIdsSync(missing);
+            for (AlbumEntity album : loaded) {
+                found.put(album.getId(), album);
+            }
+            albumCache.putAll(loaded, generation);
+            Log.d(TAG, "💿 Albums from DB: " + loaded.size() + "/" + missing.size());
+        }
+
+        List<AlbumEntity> albums = new ArrayList<>(albumIds.size());
+        for (String id : albumIds) {
+            AlbumEntity album = found.get(id);
+            if (album != null) {
+                albums.add(album);
+            } else {
+                Log.w(TAG, "⚠️ Album not found in DB: " + id);
+            }
+        }
 
-        return result;
+        albumCache.logStats();
+        return albums;
     }
 
     /**
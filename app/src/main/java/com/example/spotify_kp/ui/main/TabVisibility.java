@@ -0,0 +1,121 @@
+package com.example.spotify_kp.ui.main;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Жизненный цикл вкладки MainActivity с учётом hide/show.
+ *
+ * Вкладки не уничтожаются, а скрываются, поэтому их viewLifecycleOwner
+ * остаётся RESUMED. Этот owner повторяет view-lifecycle фрагмента, но пока
+ * вкладка скрыта, опускается до CREATED: LiveData-подписки на паузе, а при
+ * показе каждая получает один раз последнее значение. Заодно на паузе
+ * Glide-запросы фрагмента и prefetch RecyclerView.
+ *
+ * Создаётся в onViewCreated; из onHiddenChanged вызывается {@link #setHidden}.
+ */
+public class TabVisibility implements LifecycleOwner {
+    private static final String TAG = "TabVisibility";
+
+    private final Fragment fragment;
+    private final LifecycleRegistry registry = new LifecycleRegistry(this);
+    private final List<RecyclerView> recyclerViews = new ArrayList<>();
+
+    private Lifecycle.State viewState = Lifecycle.State.INITIALIZED;
+    private boolean hidden;
+
+    private TabVisibility(Fragment fragment) {
+        this.fragment = fragment;
+        this.hidden = fragment.isHidden();
+    }
+
+    /**
+     * Вызывать в onViewCreated: owner живёт до onDestroyView
+     */
+    public static TabVisibility attach(Fragment fragment) {
+        TabVisibility visibility = new TabVisibility(fragment);
+        fragment.getViewLifecycleOwner().getLifecycle().addObserver(
+                (LifecycleEventObserver) (source, event) -> {
+                    visibility.viewState = event.getTargetState();
+                    visibility.update();
+                });
+        return visibility;
+    }
+
+    @NonNull
+    @Override
+    public Lifecycle getLifecycle() {
+        return registry;
+    }
+
+    /**
+     * Список, у которого на время скрытия выключается prefetch
+     */
+    public void track(RecyclerView recyclerView) {
+        recyclerViews.add(recyclerView);
+        applyPrefetch(recyclerView);
+    }
+
+    public boolean isVisible() {
+        return !hidden;
+    }
+
+    public void setHidden(boolean hidden) {
+        if (this.hidden == hidden) {
+            return;
+        }
+        this.hidden = hidden;
+        Log.d(TAG, (hidden ? "⏸️ Paused: " : "▶️ Resumed: ") + fragment.getClass().getSimpleName());
+
+        for (RecyclerView recyclerView : recyclerViews) {
+            if (hidden) {
+                recyclerView.stopScroll();
+            }
+            applyPrefetch(recyclerView);
+        }
+
+        if (fragment.getContext() != null) {
+            if (hidden) {
+                Glide.with(fragment).pauseRequests();
+            } else {
+                Glide.with(fragment).resumeRequests();
+            }
+        }
+        update();
+    }
+
+    private void update() {
+        Lifecycle.State target = viewState;
+        if (hidden && target.isAtLeast(Lifecycle.State.STARTED)) {
+            target = Lifecycle.State.CREATED;
+        }
+        // Из INITIALIZED сразу в DESTROYED LifecycleRegistry не переводит
+        if (target == Lifecycle.State.DESTROYED
+                && registry.getCurrentState() == Lifecycle.State.INITIALIZED) {
+            return;
+        }
+        registry.setCurrentState(target);
+        if (target == Lifecycle.State.DESTROYED) {
+            recyclerViews.clear();
+        }
+    }
+
+    private void applyPrefetch(RecyclerView recyclerView) {
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager != null) {
+            layoutManager.setItemPrefetchEnabled(!hidden);
+        }
+    }
+}
@@ -21,21 +21,25 @@ import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
+import com.bumptech.glide.Glide;
+import com.example.spotify_kp.AppContainer;
 import com.example.spotify_kp.R;
-import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.model.AlbumListItem;
+import com.example.spotify_kp.memory.MemoryPressureCoordinator;
+import com.example.spotify_kp.metrics.FrameMetricsRecorder;
 import com.example.spotify_kp.ui.catalog.adapter.AlbumAdapter;
 import com.example.spotify_kp.ui.details.DetailsActivity;
+import com.example.spotify_kp.ui.main.MainActivity;
+import com.example.spotify_kp.ui.main.TabVisibility;
 import com.example.spotify_kp.utils.Constants;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 public class NewReleasesFragment extends Fragment implements AlbumAdapter.OnAlbumClickListener {
 
     private NewReleasesViewModel viewModel;
     private AlbumAdapter adapter;
+    private TabVisibility tabVisibility;
 
     private SwipeRefreshLayout swipeRefresh;
     private RecyclerView recyclerView;
@@ -47,7 +51,12 @@ public class NewReleasesFragment extends Fragment implements AlbumAdapter.OnAlbu
     private TextView headerTitle;
     private EditText searchInput;
 
-    private List<AlbumEntity> allReleases = new ArrayList<>();
+    private ReleaseFilterEngine filterEngine;
+    private final MemoryPressureCoordinator.Listener trimListener = stage -> {
+        if (filterEngine != null && stage.isAtLeast(MemoryPressureCoordinator.Stage.CACHES)) {
+            filterEngine.trimMemory();
+        }
+    };
     private boolean isLoadingMore = false;
 
     @Nullable
@@ -62,6 +71,9 @@ public class NewReleasesFragment extends Fragment implements AlbumAdapter.OnAlbu
         super.onViewCreated(view, savedInstanceState);
 
         initViews(view);
+        tabVisibility = TabVisibility.attach(this);
+        filterEngine = new ReleaseFilterEngine(requireContext());
+        AppContainer.from(requireContext()).getMemoryPressure().register(trimListener);
         setupViewModel();
         setupRecyclerView();
         setupSwipeRefresh();
@@ -89,10 +101,25 @@ public class NewReleasesFragment extends Fragment implements AlbumAdapter.OnAlbu
     }
 
     private void setupRecyclerView() {
-        adapter = new AlbumAdapter(this);
+        adapter = new AlbumAdapter(Glide.with(this), this);
         GridLayoutManager layoutManager = new GridLayoutManager(getContext(), 2);
         recyclerView.setLayoutManager(layoutManager);
+        // Карточки общие с другой сеткой (до setAdapter - см. AlbumViewPool.attach)
+        if (getActivity() instanceof MainActivity) {
+            ((MainActivity) getActivity()).getAlbumViewPool().attach(recyclerView);
+        }
         recyclerView.setAdapter(adapter);
+        tabVisibility.track(recyclerView);
+        FrameMetricsRecorder.get().trackScrolling(recyclerView);
+    }
+
+    @Override
+    public void onHiddenChanged(boolean hidden) {
+        super.onHiddenChanged(hidden);
+        // Пока вкладка скрыта, подписки, Glide и prefetch на паузе
+        if (tabVisibility != null) {
+            tabVisibility.setHidden(hidden);
+        }
     }
 
     private void setupSwipeRefresh() {
@@ -110,6 +137,7 @@ public class NewReleasesFragment extends Fragment implements AlbumAdapter.OnAlbu
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 filterReleases(s.toString());
+                FrameMetricsRecorder.get().onSearchTyping();
             }
 
             @Override
@@ -118,34 +146,20 @@ public class NewReleasesFragment extends Fragment implements AlbumAdapter.OnAlbu
     }
 
     /**
-     * ✅ ИСПРАВЛЕНИЕ: Фильтрация без дубликатов
+     * Фильтрация в фоне через ReleaseFilterEngine (без дубликатов)
      */
     private void filterReleases(String query) {
-        if (query.isEmpty()) {
-            adapter.setAlbums(allReleases);
-            return;
-        }
-
-        String lowerQuery = query.toLowerCase();
-
-        // ✅ Используем Set для уникальности
-        Set<String> seenIds = new HashSet<>();
-        List<AlbumEntity> filtered = new ArrayList<>();
-
-        for (AlbumEntity album : allReleases) {
-            // Проверяем что альбом еще не добавлен
-            if (!seenIds.contains(album.getId()) &&
-                    (album.getTitle().toLowerCase().contains(lowerQuery) ||
-                            album.getArtist().toLowerCase().contains(lowerQuery))) {
+        filterEngine.filter(query, this::showFilteredReleases);
+    }
 
-                filtered.add(album);
-                seenIds.add(album.getId());
-            }
+    private void showFilteredReleases(String query, List<AlbumListItem> releases) {
+        if (getView() == null) {
+            return;
         }
 
-        adapter.setAlbums(filtered);
+        adapter.setAlbums(releases);
 
-        if (filtered.isEmpty()) {
+        if (releases.isEmpty()) {
             showEmpty();
         } else {
             showContent();
@@ -185,7 +199,7 @@ public class NewReleasesFragment extends Fragment implements AlbumAdapter.OnAlbu
      * ✅ ИСПРАВЛЕНИЕ: Обработка данных без дубликатов
      */
     private void observeNewReleases() {
-        viewModel.getNewReleases().observe(getViewLifecycleOwner(), resource -> {
+        viewModel.getNewReleases().observe(tabVisibility, resource -> {
             if (resource != null) {
                 swipeRefresh.setRefreshing(false);
                 isLoadingMore = false;
@@ -199,18 +213,10 @@ public class NewReleasesFragment extends Fragment implements AlbumAdapter.OnAlbu
 
                     case SUCCESS:
                         if (resource.getData() != null && !resource.getData().isEmpty()) {
-                            showContent();
-
-                            // ✅ ИСПРАВЛЕНИЕ: Удаляем дубликаты перед показом
-                            allReleases = removeDuplicates(resource.getData());
-
-                            // Применяем фильтр если есть текст в поиске
-                            String searchText = searchInput.getText().toString();
-                            if (!searchText.isEmpty()) {
-                                filterReleases(searchText);
-                            } else {
-                                adapter.setAlbums(allReleases);
-                            }
+                            // Дубликаты убираются и текущий поиск применяется в фоне
+                            filterEngine.setData(resource.getData(),
+                                    searchInput.getText().toString(),
+                                    this::showFilteredReleases);
                         } else {
                             showEmpty();
                         }
@@ -226,30 +232,25 @@ public class NewReleasesFragment extends Fragment implements AlbumAdapter.OnAlbu
         });
     }
 
-    /**
-     * ✅ НОВЫЙ МЕТОД: Удаление дубликатов
-     */
-    private List<AlbumEntity> removeDuplicates(List<AlbumEntity> albums) {
-        Set<String> seenIds = new HashSet<>();
-        List<AlbumEntity> uniqueAlbums = new ArrayList<>();
-
-        for (AlbumEntity album : albums) {
-            if (!seenIds.contains(album.getId())) {
-                uniqueAlbums.add(album);
-                seenIds.add(album.getId());
-            }
-        }
-
-        return uniqueAlbums;
-    }
-
     @Override
-    public void onAlbumClick(AlbumEntity album) {
+    public void onAlbumClick(AlbumListItem album) {
         Intent intent = new Intent(getContext(), DetailsActivity.class);
         intent.putExtra(Constants.KEY_ALBUM_ID, album.getId());
         startActivity(intent);
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        // View скрытой вкладки может быть отпущен при нехватке памяти -
+        // движок создаётся заново вместе с ним
+        AppContainer.from(requireContext()).getMemoryPressure().unregister(trimListener);
+        if (filterEngine != null) {
+            filterEngine.shutdown();
+            filterEngine = null;
+        }
+    }
+
     private void showLoading() {
         progressBar.setVisibility(View.VISIBLE);
         recyclerView.setVisibility(View.GONE);
@@ -0,0 +1,95 @@
+package com.example.spotify_kp.ui.newreleases;
+
+import com.example.spotify_kp.data.search.AlbumSearchIndex;
+
+import java.util.Arrays;
+
+/**
+ * Ядро фильтра новинок без Android: строки поиска по каждому релизу и
+ * совпадения прошлого запроса. Потоками и доставкой результата
+ * занимается {@link ReleaseFilterEngine}; сам класс не потокобезопасен.
+ */
+class ReleaseFilter {
+
+    /**
+     * Совпадения из триграммного индекса для текущих строк (см.
+     * {@link AlbumSearchIndex#matchSubstring}) или null, если индекс не готов
+     */
+    interface IndexMatcher {
+        byte[] match(String query);
+    }
+
+    private String[] keys = new String[0];
+    private String lastQuery = null;
+    private int[] lastMatches = new int[0];
+
+    /**
+     * Строка поиска релиза; \n не встречается в запросе - совпадение не склеит
+     * название с артистом
+     */
+    static String keyOf(String title, String artist) {
+        return AlbumSearchIndex.normalize(title) + '\n' + AlbumSearchIndex.normalize(artist);
+    }
+
+    void setKeys(String[] keys) {
+        this.keys = keys;
+        forget(); // старые совпадения относятся к старым данным
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * Забыть совпадения прошлого запроса (следующий пройдёт по всему списку)
+     */
+    void forget() {
+        lastQuery = null;
+        lastMatches = new int[0];
+    }
+
+    /**
+     * Номера подходящих релизов по возрастанию.
+     * Если запрос продолжает предыдущий ("ab" → "abc"), проверяются только
+     * прошлые совпадения; иначе - полный проход, через индекс, если он есть
+     */
+    int[] filter(String rawQuery, IndexMatcher index) {
+        String query = AlbumSearchIndex.normalize(rawQuery);
+        int total = keys.length;
+
+        int[] matches;
+        int matchCount = 0;
+
+        if (query.isEmpty()) {
+            matches = new int[total];
+            for (int i = 0; i < total; i++) {
+                matches[i] = i;
+            }
+            matchCount = total;
+        } else if (lastQuery != null && !lastQuery.isEmpty() && query.startsWith(lastQuery)) {
+            // Сужаем прошлый результат
+            matches = new int[lastMatches.length];
+            for (int i : lastMatches) {
+                if (keys[i].contains(query)) {
+                    matches[matchCount++] = i;
+                }
+            }
+        } else {
+            byte[] indexed = query.length() >= 3 && index != null ? index.match(query) : null;
+            matches = new int[total];
+            for (int i = 0; i < total; i++) {
+                // Строки сравниваем только там, где индекс не ответил
+                boolean match = indexed == null || indexed[i] == AlbumSearchIndex.NOT_INDEXED
+                        ? keys[i].contains(query)
+                        : indexed[i] == AlbumSearchIndex.MATCH;
+                if (match) {
+                    matches[matchCount++] = i;
+                }
+            }
+        }
+
+        lastQuery = query;
+        lastMatches = matchCount == matches.length ? matches : Arrays.copyOf(matches, matchCount);
+        return lastMatches;
+    }
+}
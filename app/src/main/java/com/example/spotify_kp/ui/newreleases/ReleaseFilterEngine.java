@@ -0,0 +1,132 @@
+package com.example.spotify_kp.ui.newreleases;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.spotify_kp.data.local.entity.AlbumEntity;
+import com.example.spotify_kp.data.local.model.AlbumListItem;
+import com.example.spotify_kp.data.search.AlbumSearchIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Фильтрация новинок по строке поиска в фоновом потоке.
+ *
+ * Название и артист нормализуются один раз при получении данных.
+ * Если новый запрос продолжает предыдущий ("ab" → "abc"), проверяются
+ * только совпадения прошлого запроса, а не весь список (см. {@link ReleaseFilter}).
+ * Результат отдаётся на главный поток, только если он ещё актуален.
+ */
+public class ReleaseFilterEngine {
+
+    private static final String TAG = "ReleaseFilterEngine";
+
+    public interface Callback {
+        void onFiltered(String query, List<AlbumListItem> result);
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AlbumSearchIndex searchIndex;
+
+    // Меняется только на главном потоке, читается в фоне
+    private volatile long generation = 0;
+
+    // Состояние ниже - только в потоке executor
+    private List<AlbumListItem> albums = Collections.emptyList();
+    private final ReleaseFilter releaseFilter = new ReleaseFilter();
+
+    public ReleaseFilterEngine(Context context) {
+        searchIndex = AlbumSearchIndex.getInstance(context);
+    }
+
+    /**
+     * Новые данные (с дубликатами из пагинации) + повторное применение запроса
+     */
+    public void setData(List<AlbumEntity> data, String query, Callback callback) {
+        final long myGeneration = ++generation;
+        final List<AlbumEntity> snapshot = new ArrayList<>(data);
+
+        executor.execute(() -> {
+            long start = SystemClock.elapsedRealtime();
+
+            Set<String> seenIds = new HashSet<>();
+            // В сетку уходят только карточки, полные сущности не держим
+            List<AlbumListItem> unique = new ArrayList<>(snapshot.size());
+            for (AlbumEntity album : snapshot) {
+                if (seenIds.add(album.getId())) {
+                    unique.add(AlbumListItem.from(album));
+                }
+            }
+
+            String[] keys = new String[unique.size()];
+            for (int i = 0; i < keys.length; i++) {
+                AlbumListItem album = unique.get(i);
+                keys[i] = ReleaseFilter.keyOf(album.getTitle(), album.getArtist());
+            }
+
+            albums = unique;
+            releaseFilter.setKeys(keys);
+
+            Log.d(TAG, "📦 Indexed " + keys.length + " releases in "
+                    + (SystemClock.elapsedRealtime() - start) + " ms");
+
+            runFilter(query, myGeneration, callback);
+        });
+    }
+
+    /**
+     * Запрос из поля поиска (на каждое нажатие клавиши)
+     */
+    public void filter(String query, Callback callback) {
+        final long myGeneration = ++generation;
+        executor.execute(() -> runFilter(query, myGeneration, callback));
+    }
+
+    /**
+     * Нехватка памяти: забыть совпадения прошлого запроса
+     * (следующий запрос пройдёт по всему списку)
+     */
+    public void trimMemory() {
+        executor.execute(releaseFilter::forget);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runFilter(String rawQuery, long myGeneration, Callback callback) {
+        if (myGeneration != generation) {
+            return; // уже есть более новый запрос
+        }
+
+        long start = SystemClock.elapsedRealtime();
+        List<AlbumListItem> current = albums;
+        int[] matches = releaseFilter.filter(rawQuery, query -> searchIndex.isReady()
+                ? searchIndex.matchSubstring(query, current)
+                : null);
+
+        List<AlbumListItem> result = new ArrayList<>(matches.length);
+        for (int index : matches) {
+            result.add(current.get(index));
+        }
+
+        Log.d(TAG, "🔍 \"" + rawQuery + "\": " + matches.length + "/" + current.size() + " in "
+                + (SystemClock.elapsedRealtime() - start) + " ms");
+
+        mainHandler.post(() -> {
+            if (myGeneration == generation) {
+                callback.onFiltered(rawQuery, result);
+            }
+        });
+    }
+}
@@ -19,6 +19,7 @@ import androidx.lifecycle.ViewModelProvider;
 import com.bumptech.glide.Glide;
 import com.example.spotify_kp.R;
 import com.example.spotify_kp.ui.auth.LoginActivity;
+import com.example.spotify_kp.ui.main.TabVisibility;
 import com.example.spotify_kp.utils.SharedPrefsManager;
 import com.google.android.material.card.MaterialCardView;
 
@@ -45,6 +46,7 @@ public class ProfileFragment extends Fragment {
     private Button logoutButton;
 
     private ProfileViewModel viewModel;
+    private TabVisibility tabVisibility;
     private SharedPrefsManager prefsManager;
 
     @Nullable
@@ -59,6 +61,7 @@ public class ProfileFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
 
         initViews(view);
+        tabVisibility = TabVisibility.attach(this);
         setupViewModel();
         loadUserData();
         setupListeners();
@@ -72,6 +75,19 @@ public class ProfileFragment extends Fragment {
         viewModel.refreshStats();
     }
 
+    @Override
+    public void onHiddenChanged(boolean hidden) {
+        super.onHiddenChanged(hidden);
+        if (tabVisibility != null) {
+            tabVisibility.setHidden(hidden);
+        }
+
+        // onResume при show() не вызывается - обновляем статистику здесь
+        if (!hidden && viewModel != null) {
+            viewModel.refreshStats();
+        }
+    }
+
     private void initViews(View view) {
         profileImage = view.findViewById(R.id.profileImage);
         userName = view.findViewById(R.id.userName);
@@ -130,11 +146,11 @@ public class ProfileFragment extends Fragment {
     }
 
     private void observeStats() {
-        viewModel.getFavoritesCount().observe(getViewLifecycleOwner(), count -> {
+        viewModel.getFavoritesCount().observe(tabVisibility, count -> {
             favoritesCount.setText(String.valueOf(count));
         });
 
-        viewModel.getAlbumsCount().observe(getViewLifecycleOwner(), count -> {
+        viewModel.getAlbumsCount().observe(tabVisibility, count -> {
             albumsCount.setText(String.valueOf(count));
         });
     }
@@ -8,6 +8,7 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.example.spotify_kp.AppContainer;
 import com.example.spotify_kp.data.local.AppDatabase;
 import com.example.spotify_kp.data.repository.FavoriteRepository;
 import com.example.spotify_kp.utils.SharedPrefsManager;
@@ -26,7 +27,7 @@ public class ProfileViewModel extends AndroidViewModel {
     public ProfileViewModel(@NonNull Application application) {
         super(application);
         database = AppDatabase.getInstance(application);
-        favoriteRepository = new FavoriteRepository(application);
+        favoriteRepository = AppContainer.from(application).getFavoriteRepository();
         prefsManager = SharedPrefsManager.getInstance(application);
 
         loadStats();
@@ -41,7 +42,7 @@ public class ProfileViewModel extends AndroidViewModel {
     }
 
     private void loadStats() {
-        new Thread(() -> {
+        AppDatabase.databaseExecutor.execute(() -> {
             try {
                 // Get favorites count
                 int favCount = favoriteRepository.getFavoritesCountSync();
@@ -58,7 +59,7 @@ public class ProfileViewModel extends AndroidViewModel {
                 favoritesCount.postValue(0);
                 albumsCount.postValue(0);
             }
-        }).start();
+        });
     }
 
     public void refreshStats() {
@@ -6,11 +6,16 @@ public class Constants {
 
     // Database
     public static final String DATABASE_NAME = "spotify_database";
-    public static final int DATABASE_VERSION = 1;
+    public static final int DATABASE_VERSION = 5;
 
     // SharedPreferences Keys
     public static final String PREF_NAME = "SpotifyAppPrefs";
 
+    // Search
+    public static final long SEARCH_DEBOUNCE_MS = 300;
+    // Не 2: текст ищет только триграммный индекс, по 1-2 символам он ничего не найдёт
+    public static final int SEARCH_MIN_QUERY_LENGTH = 3;
+
     // Intent Keys
     public static final String KEY_ALBUM_ID = "album_id";
     public static final String KEY_ALBUM_TITLE = "album_title";
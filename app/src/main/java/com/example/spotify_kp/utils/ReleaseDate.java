@@ -0,0 +1,68 @@
+package com.example.spotify_kp.utils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Дата релиза из Spotify ("2011-01-01", "2011-01" или "2011")
+ * в виде дня эпохи + точности. Неполная дата - первый день месяца / года.
+ */
+public final class ReleaseDate {
+
+    public static final int PRECISION_DAY = 0;
+    public static final int PRECISION_MONTH = 1;
+    public static final int PRECISION_YEAR = 2;
+
+    private ReleaseDate() {}
+
+    /**
+     * @return точность строки или null, если дату не разобрать
+     */
+    public static Integer precisionOf(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value.length()) {
+            case 10: return PRECISION_DAY;
+            case 7: return PRECISION_MONTH;
+            case 4: return PRECISION_YEAR;
+            default: return null;
+        }
+    }
+
+    /**
+     * @return день эпохи (LocalDate.toEpochDay) или null
+     */
+    public static Long toEpochDay(String value) {
+        Integer precision = precisionOf(value);
+        if (precision == null) {
+            return null;
+        }
+        String full = precision == PRECISION_DAY ? value
+                : precision == PRECISION_MONTH ? value + "-01"
+                : value + "-01-01";
+        try {
+            return LocalDate.parse(full).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Обратно в строку с исходной точностью
+     */
+    public static String format(Long epochDay, Integer precision) {
+        if (epochDay == null) {
+            return null;
+        }
+        String full = LocalDate.ofEpochDay(epochDay).toString();
+        if (precision == null || precision == PRECISION_DAY) {
+            return full;
+        }
+        return precision == PRECISION_MONTH ? full.substring(0, 7) : full.substring(0, 4);
+    }
+
+    public static Integer yearOf(Long epochDay) {
+        return epochDay != null ? LocalDate.ofEpochDay(epochDay).getYear() : null;
+    }
+}
@@ -7,26 +7,40 @@ public class Resource<T> {
         LOADING
     }
 
+    // Возраст данных неизвестен (не из кеша политики или кеш ещё не синхронизировался)
+    public static final long AGE_UNKNOWN = -1;
+
     private Status status;
     private T data;
     private String message;
+    private long ageMs;
+    private boolean stale;
 
-    private Resource(Status status, T data, String message) {
+    private Resource(Status status, T data, String message, long ageMs, boolean stale) {
         this.status = status;
         this.data = data;
         this.message = message;
+        this.ageMs = ageMs;
+        this.stale = stale;
     }
 
     public static <T> Resource<T> success(T data) {
-        return new Resource<>(Status.SUCCESS, data, null);
+        return new Resource<>(Status.SUCCESS, data, null, AGE_UNKNOWN, false);
+    }
+
+    /**
+     * Успех с возрастом данных; stale - за ними уже пошли на сервер (или не можем пойти)
+     */
+    public static <T> Resource<T> success(T data, long ageMs, boolean stale) {
+        return new Resource<>(Status.SUCCESS, data, null, ageMs, stale);
     }
 
     public static <T> Resource<T> error(String message, T data) {
-        return new Resource<>(Status.ERROR, data, message);
+        return new Resource<>(Status.ERROR, data, message, AGE_UNKNOWN, false);
     }
 
     public static <T> Resource<T> loading(T data) {
-        return new Resource<>(Status.LOADING, data, null);
+        return new Resource<>(Status.LOADING, data, null, AGE_UNKNOWN, false);
     }
 
     public Status getStatus() {
@@ -40,4 +54,12 @@ public class Resource<T> {
     public String getMessage() {
         return message;
     }
+
+    public long getAgeMs() {
+        return ageMs;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.example.spotify_kp.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
+import com.example.spotify_kp.data.local.KeyValueStore;
+
+/**
+ * Данные сессии. Хранятся в {@link KeyValueStore} (чтение из памяти, запись в фоне);
+ * старый файл SpotifyAppPrefs импортируется при первом запуске.
+ */
 public class SharedPrefsManager {
-    private static final String PREF_NAME = "SpotifyAppPrefs";
     private static final String KEY_IS_LOGGED_IN = "isLoggedIn";
     private static final String KEY_AUTH_TOKEN = "authToken";
     private static final String KEY_USER_ID = "userId";
@@ -13,10 +17,10 @@ public class SharedPrefsManager {
     private static final String KEY_USER_IMAGE = "userImage";
 
     private static SharedPrefsManager instance;
-    private SharedPreferences prefs;
+    private KeyValueStore prefs;
 
     private SharedPrefsManager(Context context) {
-        prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        prefs = KeyValueStore.session(context);
     }
 
     public static synchronized SharedPrefsManager getInstance(Context context) {
@@ -28,7 +32,7 @@ public class SharedPrefsManager {
 
     public void saveLoginData(String token, String userId, String userName,
                               String email, String imageUrl) {
-        SharedPreferences.Editor editor = prefs.edit();
+        KeyValueStore.Editor editor = prefs.edit();
         editor.putBoolean(KEY_IS_LOGGED_IN, true);
         editor.putString(KEY_AUTH_TOKEN, token);
         editor.putString(KEY_USER_ID, userId);
@@ -63,7 +67,7 @@ public class SharedPrefsManager {
     }
 
     public void logout() {
-        SharedPreferences.Editor editor = prefs.edit();
+        KeyValueStore.Editor editor = prefs.edit();
         editor.clear();
         editor.apply();
     }
@@ -0,0 +1,212 @@
+package com.example.spotify_kp.data.cache;
+
+import com.example.spotify_kp.data.local.entity.AlbumEntity;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AlbumMemoryCacheTest {
+
+    @Test
+    public void putAndGetWithinGeneration() {
+        AlbumMemoryCache cache = new AlbumMemoryCache(10, Long.MAX_VALUE);
+        AlbumEntity album = album("a", 0);
+
+        assertTrue(cache.put(album, cache.currentGeneration()));
+        assertSame(album, cache.get("a"));
+        assertEquals(1, cache.getStats().hits);
+    }
+
+    @Test
+    public void putReadBeforeTableChangeIsRejected() {
+        AlbumMemoryCache cache = new AlbumMemoryCache(10, Long.MAX_VALUE);
+        long readGeneration = cache.currentGeneration();
+
+        // Строки прочитаны, затем синхронизация переписала таблицу
+        cache.onTableChanged();
+
+        assertFalse(cache.putAll(Arrays.asList(album("a", 0), album("b", 0)), readGeneration));
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.getStats().rejectedPuts);
+    }
+
+    @Test
+    public void tableChangeMakesEntriesStale() {
+        AlbumMemoryCache cache = new AlbumMemoryCache(10, Long.MAX_VALUE);
+        cache.put(album("a", 0), cache.currentGeneration());
+
+        cache.onTableChanged();
+
+        assertNull(cache.get("a"));
+        assertEquals(Arrays.asList("a"), cache.missingIds(Arrays.asList("a")));
+        assertEquals(1, cache.getStats().staleDrops);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void getAllReturnsOnlyFreshHits() {
+        AlbumMemoryCache cache = new AlbumMemoryCache(10, Long.MAX_VALUE);
+        cache.put(album("a", 0), cache.currentGeneration());
+        cache.onTableChanged();
+        AlbumEntity fresh = album("b", 0);
+        cache.put(fresh, cache.currentGeneration());
+
+        Map<String, AlbumEntity> found = cache.getAll(Arrays.asList("a", "b", "c"));
+
+        assertEquals(1, found.size());
+        assertSame(fresh, found.get("b"));
+        assertEquals(1, cache.getStats().hits);
+        assertEquals(2, cache.getStats().misses);
+        assertEquals(1, cache.getStats().staleDrops);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedByCount() {
+        AlbumMemoryCache cache = new AlbumMemoryCache(2, Long.MAX_VALUE);
+        long generation = cache.currentGeneration();
+        cache.put(album("a", 0), generation);
+        cache.put(album("b", 0), generation);
+        cache.get("a"); // a - свежее, вытесняется b
+        cache.put(album("c", 0), generation);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.getStats().evictions);
+    }
+
+    @Test
+    public void evictsByWeight() {
+        AlbumMemoryCache cache = new AlbumMemoryCache(100, 2_000);
+        long generation = cache.currentGeneration();
+        for (int i = 0; i < 50; i++) {
+            cache.put(album("id" + i, 0), generation);
+        }
+        assertTrue(cache.getStats().weightBytes <= 2_000);
+        assertTrue(cache.size() < 50);
+    }
+
+    @Test
+    public void trimToShrinksBelowFraction() {
+        AlbumMemoryCache cache = new AlbumMemoryCache(10, Long.MAX_VALUE);
+        long generation = cache.currentGeneration();
+        for (int i = 0; i < 10; i++) {
+            cache.put(album("id" + i, 0), generation);
+        }
+        cache.trimTo(0.5f);
+        assertEquals(5, cache.size());
+    }
+
+    /**
+     * Несколько потоков читают, пишут и инвалидируют одновременно.
+     * Инварианты: лимиты соблюдаются, счётчики сходятся, и кеш никогда не отдаёт
+     * версию альбома, прочитанную до последнего изменения таблицы
+     */
+    @Test
+    public void stressConcurrentReadersWritersAndInvalidations() throws Exception {
+        final int maxAlbums = 64;
+        final long maxWeight = 32 * 1024;
+        final int ids = 256;
+        final int threads = 8;
+        final int opsPerThread = 50_000;
+
+        AlbumMemoryCache cache = new AlbumMemoryCache(maxAlbums, maxWeight);
+        // "Таблица": версия строки = номер поколения, в котором она записана
+        final long[] tableVersion = {0};
+        final Object table = new Object();
+        final AtomicBoolean violation = new AtomicBoolean(false);
+        final AtomicBoolean stop = new AtomicBoolean(false);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        // Писатель: меняет "таблицу", затем (как InvalidationTracker - позже) бампает поколение
+        Future<?> writer = pool.submit(() -> {
+            start.await();
+            while (!stop.get()) {
+                synchronized (table) {
+                    tableVersion[0]++;
+                }
+                Thread.yield();
+                cache.onTableChanged();
+            }
+            return null;
+        });
+
+        for (int t = 0; t < threads; t++) {
+            final int seed = t;
+            workers.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int i = 0; i < opsPerThread; i++) {
+                    String id = "album-" + random.nextInt(ids);
+                    int op = random.nextInt(10);
+                    if (op < 6) {
+                        // Писатель меняет строку раньше, чем поколение, поэтому строка,
+                        // отданная в поколении g, не может быть старше версии g
+                        long readGeneration = cache.currentGeneration();
+                        AlbumEntity cached = cache.get(id);
+                        if (cached != null && cached.getTotalTracks() < readGeneration) {
+                            violation.set(true);
+                        }
+                    } else if (op < 9) {
+                        // Читатель: поколение до "запроса", затем строка из "таблицы"
+                        long readGeneration = cache.currentGeneration();
+                        int version;
+                        synchronized (table) {
+                            version = (int) tableVersion[0];
+                        }
+                        cache.put(album(id, version), readGeneration);
+                    } else {
+                        cache.missingIds(Arrays.asList(id, "album-" + random.nextInt(ids)));
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        stop.set(true);
+        writer.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        AlbumMemoryCache.Stats stats = cache.getStats();
+        assertFalse("cache served a row older than its generation", violation.get());
+        assertTrue(stats.size <= maxAlbums);
+        assertTrue(stats.weightBytes <= maxWeight);
+        assertEquals(stats.size, cache.size());
+        assertTrue(stats.hits + stats.misses > 0);
+    }
+
+    private static AlbumEntity album(String id, int version) {
+        AlbumEntity album = new AlbumEntity();
+        album.setId(id);
+        album.setTitle("Title " + id);
+        album.setArtist("Artist");
+        album.setCoverUrl("https://i.scdn.co/image/" + id);
+        album.setTotalTracks(version);
+        return album;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.spotify_kp.data.local;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Журнал KeyValueStore: повторная загрузка и восстановление после битого хвоста
+ */
+public class KeyValueStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void valuesSurviveReload() throws Exception {
+        File file = new File(folder.getRoot(), "store.log");
+        KeyValueStore store = new KeyValueStore(file);
+        store.edit()
+                .putString("token", "abc")
+                .putLong("last_sync", 42L)
+                .putBoolean("logged_in", true)
+                .putString("removed", "x")
+                .apply();
+        store.edit().remove("removed").apply();
+        store.awaitWrites();
+
+        KeyValueStore reloaded = new KeyValueStore(file);
+        assertEquals("abc", reloaded.getString("token", null));
+        assertEquals(42L, reloaded.getLong("last_sync", 0));
+        assertTrue(reloaded.getBoolean("logged_in", false));
+        assertFalse(reloaded.contains("removed"));
+    }
+
+    @Test
+    public void clearDropsEverythingWrittenBefore() throws Exception {
+        File file = new File(folder.getRoot(), "store.log");
+        KeyValueStore store = new KeyValueStore(file);
+        store.edit().putString("a", "1").putString("b", "2").apply();
+        store.edit().clear().putString("c", "3").apply();
+        store.awaitWrites();
+
+        KeyValueStore reloaded = new KeyValueStore(file);
+        assertFalse(reloaded.contains("a"));
+        assertFalse(reloaded.contains("b"));
+        assertEquals("3", reloaded.getString("c", null));
+    }
+
+    @Test
+    public void tornTailIsTruncatedAndLaterWritesSurvive() throws Exception {
+        File file = new File(folder.getRoot(), "store.log");
+        KeyValueStore store = new KeyValueStore(file);
+        store.edit().putString("user_id", "old").apply();
+        store.awaitWrites();
+        long goodLength = file.length();
+
+        // Процесс убит посреди записи: заголовок обещает 100 байт, дописано 3
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[]{0, 0, 0, 100, 1, 2, 3, 4, 9, 9, 9});
+        }
+
+        KeyValueStore afterCrash = new KeyValueStore(file);
+        assertEquals("old", afterCrash.getString("user_id", null));
+        afterCrash.edit().putString("user_id", "new").putLong("last_sync", 7L).apply();
+        afterCrash.awaitWrites();
+
+        KeyValueStore reloaded = new KeyValueStore(file);
+        assertEquals("new", reloaded.getString("user_id", null));
+        assertEquals(7L, reloaded.getLong("last_sync", 0));
+        assertTrue(file.length() > goodLength);
+    }
+
+    @Test
+    public void crcMismatchIsTruncatedAndLaterWritesSurvive() throws Exception {
+        File file = new File(folder.getRoot(), "store.log");
+        KeyValueStore store = new KeyValueStore(file);
+        store.edit().putString("user_id", "old").apply();
+        store.awaitWrites();
+        long goodLength = file.length();
+
+        // Второй пакет целиком на месте, но payload испорчен
+        store.edit().putString("user_id", "corrupted").apply();
+        store.awaitWrites();
+        flipLastByte(file);
+
+        KeyValueStore afterCrash = new KeyValueStore(file);
+        assertEquals("old", afterCrash.getString("user_id", null));
+        afterCrash.awaitWrites();
+        assertEquals(goodLength, file.length());
+
+        afterCrash.edit().putString("session", "s1").apply();
+        afterCrash.awaitWrites();
+
+        KeyValueStore reloaded = new KeyValueStore(file);
+        assertEquals("old", reloaded.getString("user_id", null));
+        assertEquals("s1", reloaded.getString("session", null));
+    }
+
+    @Test
+    public void emptyFileLoadsAsEmptyStore() throws Exception {
+        File file = folder.newFile("empty.log");
+        assertEquals(0, Files.size(file.toPath()));
+
+        KeyValueStore store = new KeyValueStore(file);
+        assertFalse(store.contains("anything"));
+        store.edit().putString("k", "v").apply();
+        store.awaitWrites();
+
+        assertEquals("v", new KeyValueStore(file).getString("k", null));
+    }
+
+    @Test
+    public void writesBeforeLoadLandOverFileContents() throws Exception {
+        File file = new File(folder.getRoot(), "store.log");
+        KeyValueStore store = new KeyValueStore(file);
+        store.edit().putString("user_id", "old").putString("token", "t1").apply();
+        store.awaitWrites();
+
+        // apply() сразу после создания - загрузка, скорее всего, ещё идёт
+        KeyValueStore early = new KeyValueStore(file);
+        early.edit().putString("user_id", "new").apply();
+        assertEquals("new", early.getString("user_id", null));
+        assertEquals("t1", early.getString("token", null));
+        early.awaitWrites();
+
+        assertEquals("new", new KeyValueStore(file).getString("user_id", null));
+    }
+
+    @Test
+    public void concurrentWritersKeepMemoryAndLogInSameOrder() throws Exception {
+        File file = new File(folder.getRoot(), "store.log");
+        KeyValueStore store = new KeyValueStore(file);
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            String value = "writer-" + w;
+            writers[w] = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    store.edit().putString("last", value).apply();
+                }
+            });
+            writers[w].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        store.awaitWrites();
+
+        assertEquals(store.getString("last", null), new KeyValueStore(file).getString("last", null));
+    }
+
+    private static void flipLastByte(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(last ^ 0xFF);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.spotify_kp.startup;
+
+import android.content.ContextWrapper;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class StartupTraceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void percentileIsNearestRank() {
+        List<Long> values = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            values.add(i);
+        }
+        assertEquals(10, StartupTrace.percentile(values, 50));
+        assertEquals(19, StartupTrace.percentile(values, 95));
+        assertEquals(20, StartupTrace.percentile(values, 100));
+    }
+
+    @Test
+    public void percentileOfSmallSamples() {
+        assertEquals(42, StartupTrace.percentile(Collections.singletonList(42L), 50));
+        assertEquals(42, StartupTrace.percentile(Collections.singletonList(42L), 95));
+        assertEquals(10, StartupTrace.percentile(Arrays.asList(10L, 30L), 50));
+        assertEquals(30, StartupTrace.percentile(Arrays.asList(10L, 30L), 95));
+    }
+
+    @Test
+    public void percentilesPerPhaseAndMark() throws JSONException {
+        JSONArray launches = new JSONArray();
+        for (int i = 1; i <= 20; i++) {
+            launches.put(launch(i, i * 10L, 100L + i));
+        }
+
+        JSONObject result = StartupTrace.percentiles(launches);
+
+        JSONObject phase = result.getJSONObject(StartupTrace.PHASE_APPLICATION);
+        assertEquals(100, phase.getLong("p50"));
+        assertEquals(190, phase.getLong("p95"));
+        assertEquals(20, phase.getInt("n"));
+
+        JSONObject mark = result.getJSONObject(StartupTrace.MARK_FIRST_CATALOG);
+        assertEquals(110, mark.getLong("p50"));
+        assertEquals(119, mark.getLong("p95"));
+    }
+
+    @Test
+    public void unfinishedPhasesAreNotSampled() throws JSONException {
+        JSONArray launches = new JSONArray();
+        launches.put(launch(1, 50, 200));
+        launches.put(launch(2, -1, 300));
+
+        JSONObject phase = StartupTrace.percentiles(launches)
+                .getJSONObject(StartupTrace.PHASE_APPLICATION);
+
+        assertEquals(1, phase.getInt("n"));
+        assertEquals(50, phase.getLong("p50"));
+    }
+
+    @Test
+    public void ringBufferKeepsLatestLaunches() throws JSONException {
+        JSONArray buffer = new JSONArray();
+        int total = StartupTrace.MAX_LAUNCHES + 5;
+        for (int i = 0; i < total; i++) {
+            buffer = StartupTrace.append(buffer, launch(i, 10, 20));
+        }
+
+        assertEquals(StartupTrace.MAX_LAUNCHES, buffer.length());
+        assertEquals(5, buffer.getJSONObject(0).getLong("timestamp"));
+        assertEquals(total - 1,
+                buffer.getJSONObject(buffer.length() - 1).getLong("timestamp"));
+    }
+
+    @Test
+    public void persistedLaunchesAreExported() throws Exception {
+        File filesDir = folder.newFolder("files");
+        ContextWrapper context = new ContextWrapper(null) {
+            @Override
+            public File getFilesDir() {
+                return filesDir;
+            }
+        };
+
+        StartupTrace.persist(context, launch(1, 40, 400));
+        StartupTrace.persist(context, launch(2, 60, 600));
+
+        JSONObject report = StartupTrace.exportJson(context);
+        assertEquals(2, report.getInt("launches"));
+        assertEquals(2, report.getJSONArray("history").length());
+        assertEquals(40, report.getJSONObject("percentiles")
+                .getJSONObject(StartupTrace.PHASE_APPLICATION).getLong("p50"));
+        assertFalse(new File(filesDir, "startup_traces.json.tmp").exists());
+    }
+
+    private static JSONObject launch(long timestamp, long applicationMs, long firstContentMs)
+            throws JSONException {
+        JSONObject timing = new JSONObject();
+        timing.put("start", 0);
+        timing.put("duration", applicationMs);
+
+        JSONObject phases = new JSONObject();
+        phases.put(StartupTrace.PHASE_APPLICATION, timing);
+
+        JSONObject marks = new JSONObject();
+        marks.put(StartupTrace.MARK_FIRST_CATALOG, firstContentMs);
+
+        JSONObject launch = new JSONObject();
+        launch.put("timestamp", timestamp);
+        launch.put("phases", phases);
+        launch.put("marks", marks);
+        return launch;
+    }
+}
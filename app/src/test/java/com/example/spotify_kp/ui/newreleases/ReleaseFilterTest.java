@@ -0,0 +1,174 @@
+package com.example.spotify_kp.ui.newreleases;
+
+import com.example.spotify_kp.data.search.AlbumSearchIndex;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ReleaseFilterTest {
+
+    private static final int[] RELEASE_COUNTS = {1_000, 10_000, 100_000};
+    private static final int ITERATIONS = 20;
+
+    // Набор символов по одному, как в поле поиска
+    private static final String TYPED_QUERY = "the love";
+
+    private static final String[] WORDS = {"love", "night", "dream", "city", "fire", "blue",
+            "heart", "summer", "ghost", "river", "the", "moon", "beyoncé", "motörhead"};
+
+    @Test
+    public void emptyQueryMatchesEverything() {
+        ReleaseFilter filter = new ReleaseFilter();
+        filter.setKeys(keys(50, new Random(1)));
+
+        int[] matches = filter.filter("  ", null);
+
+        assertEquals(50, matches.length);
+        for (int i = 0; i < matches.length; i++) {
+            assertEquals(i, matches[i]);
+        }
+    }
+
+    @Test
+    public void matchesIgnoreCaseAndDiacritics() {
+        ReleaseFilter filter = new ReleaseFilter();
+        filter.setKeys(new String[]{
+                ReleaseFilter.keyOf("Lemonade", "Beyoncé"),
+                ReleaseFilter.keyOf("Ace of Spades", "Motörhead"),
+                ReleaseFilter.keyOf("Renaissance", "BEYONCE")});
+
+        assertArrayEquals(new int[]{0, 2}, filter.filter("beyonce", null));
+        assertArrayEquals(new int[]{1}, filter.filter("MOTOR", null));
+    }
+
+    @Test
+    public void queryDoesNotSpanTitleAndArtist() {
+        ReleaseFilter filter = new ReleaseFilter();
+        filter.setKeys(new String[]{ReleaseFilter.keyOf("Blue", "Moon")});
+
+        assertEquals(0, filter.filter("bluemoon", null).length);
+        assertEquals(0, filter.filter("blue moon", null).length);
+    }
+
+    @Test
+    public void narrowingMatchesFullScan() {
+        for (int count : RELEASE_COUNTS) {
+            String[] keys = keys(count, new Random(count));
+            ReleaseFilter typing = new ReleaseFilter();
+            typing.setKeys(keys);
+
+            for (int end = 1; end <= TYPED_QUERY.length(); end++) {
+                String query = TYPED_QUERY.substring(0, end);
+                assertArrayEquals(count + " releases, \"" + query + "\"",
+                        fullScan(keys, query), typing.filter(query, null));
+            }
+        }
+    }
+
+    @Test
+    public void indexAnswersMatchFullScan() {
+        String[] keys = keys(10_000, new Random(7));
+        ReleaseFilter filter = new ReleaseFilter();
+        filter.setKeys(keys);
+
+        // Индекс видел только чётные релизы - нечётные фильтр проверяет сам
+        ReleaseFilter.IndexMatcher partialIndex = query -> {
+            String q = AlbumSearchIndex.normalize(query);
+            byte[] result = new byte[keys.length];
+            for (int i = 0; i < keys.length; i += 2) {
+                result[i] = keys[i].contains(q) ? AlbumSearchIndex.MATCH : AlbumSearchIndex.NO_MATCH;
+            }
+            return result;
+        };
+
+        for (String query : new String[]{"lov", "night", "yonc", "xyz"}) {
+            filter.forget();
+            assertArrayEquals(query, fullScan(keys, query), filter.filter(query, partialIndex));
+        }
+    }
+
+    @Test
+    public void newDataDropsPreviousMatches() {
+        ReleaseFilter filter = new ReleaseFilter();
+        filter.setKeys(new String[]{ReleaseFilter.keyOf("Love", "A")});
+        assertArrayEquals(new int[]{0}, filter.filter("lo", null));
+
+        filter.setKeys(new String[]{ReleaseFilter.keyOf("Night", "B"),
+                ReleaseFilter.keyOf("Lovely", "C")});
+        assertArrayEquals(new int[]{1}, filter.filter("lov", null));
+    }
+
+    /**
+     * Задержка на нажатие клавиши: набор TYPED_QUERY с сужением против
+     * полного прохода на каждый символ. p50 / p95 в stdout
+     */
+    @Test
+    public void filterLatency() {
+        for (int count : RELEASE_COUNTS) {
+            String[] keys = keys(count, new Random(count));
+            List<Long> narrowedUs = new ArrayList<>();
+            List<Long> fullUs = new ArrayList<>();
+
+            for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                ReleaseFilter typing = new ReleaseFilter();
+                typing.setKeys(keys);
+                ReleaseFilter rescanning = new ReleaseFilter();
+                rescanning.setKeys(keys);
+
+                for (int end = 1; end <= TYPED_QUERY.length(); end++) {
+                    String query = TYPED_QUERY.substring(0, end);
+
+                    long start = System.nanoTime();
+                    typing.filter(query, null);
+                    narrowedUs.add((System.nanoTime() - start) / 1000);
+
+                    rescanning.forget();
+                    start = System.nanoTime();
+                    rescanning.filter(query, null);
+                    fullUs.add((System.nanoTime() - start) / 1000);
+                }
+            }
+
+            report(count, "narrowing", narrowedUs);
+            report(count, "full scan", fullUs);
+        }
+    }
+
+    private static int[] fullScan(String[] keys, String query) {
+        String q = AlbumSearchIndex.normalize(query);
+        int[] matches = new int[keys.length];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].contains(q)) {
+                matches[n++] = i;
+            }
+        }
+        return Arrays.copyOf(matches, n);
+    }
+
+    private static String[] keys(int count, Random random) {
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String artist = (random.nextInt(5) == 0 ? "The " : "") + WORDS[random.nextInt(WORDS.length)];
+            keys[i] = ReleaseFilter.keyOf(title, artist);
+        }
+        return keys;
+    }
+
+    private static void report(int count, String mode, List<Long> samplesUs) {
+        Collections.sort(samplesUs);
+        System.out.println("⏱️ " + count + " releases, " + mode + ": p50 "
+                + samplesUs.get(samplesUs.size() / 2) + " µs, p95 "
+                + samplesUs.get((int) Math.ceil(samplesUs.size() * 0.95) - 1) + " µs");
+    }
+}
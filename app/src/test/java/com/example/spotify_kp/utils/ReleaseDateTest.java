@@ -0,0 +1,73 @@
+package com.example.spotify_kp.utils;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ReleaseDateTest {
+
+    @Test
+    public void fullDate() {
+        assertEquals(Integer.valueOf(ReleaseDate.PRECISION_DAY), ReleaseDate.precisionOf("2011-05-13"));
+        assertEquals(Long.valueOf(LocalDate.of(2011, 5, 13).toEpochDay()),
+                ReleaseDate.toEpochDay("2011-05-13"));
+    }
+
+    @Test
+    public void yearMonthIsFirstDayOfMonth() {
+        assertEquals(Integer.valueOf(ReleaseDate.PRECISION_MONTH), ReleaseDate.precisionOf("2011-05"));
+        assertEquals(Long.valueOf(LocalDate.of(2011, 5, 1).toEpochDay()),
+                ReleaseDate.toEpochDay("2011-05"));
+    }
+
+    @Test
+    public void yearOnlyIsFirstDayOfYear() {
+        assertEquals(Integer.valueOf(ReleaseDate.PRECISION_YEAR), ReleaseDate.precisionOf("1969"));
+        assertEquals(Long.valueOf(LocalDate.of(1969, 1, 1).toEpochDay()),
+                ReleaseDate.toEpochDay("1969"));
+    }
+
+    @Test
+    public void unparsableDatesAreNull() {
+        assertNull(ReleaseDate.precisionOf(null));
+        assertNull(ReleaseDate.toEpochDay(null));
+        assertNull(ReleaseDate.toEpochDay(""));
+        assertNull(ReleaseDate.toEpochDay("Unknown"));
+        assertNull(ReleaseDate.toEpochDay("2011-5"));
+        assertNull(ReleaseDate.toEpochDay("2011-13"));
+        assertNull(ReleaseDate.toEpochDay("2011-02-30"));
+    }
+
+    @Test
+    public void formatKeepsPrecision() {
+        for (String value : new String[]{"2011-05-13", "2011-05", "2011", "1969-12-31", "1970"}) {
+            assertEquals(value, ReleaseDate.format(ReleaseDate.toEpochDay(value),
+                    ReleaseDate.precisionOf(value)));
+        }
+    }
+
+    @Test
+    public void formatWithoutPrecisionIsFullDate() {
+        long day = LocalDate.of(2011, 5, 13).toEpochDay();
+        assertEquals("2011-05-13", ReleaseDate.format(day, null));
+        assertNull(ReleaseDate.format(null, ReleaseDate.PRECISION_YEAR));
+    }
+
+    @Test
+    public void yearOfEpochDay() {
+        assertEquals(Integer.valueOf(2011), ReleaseDate.yearOf(ReleaseDate.toEpochDay("2011-12-31")));
+        assertEquals(Integer.valueOf(1969), ReleaseDate.yearOf(ReleaseDate.toEpochDay("1969")));
+        assertNull(ReleaseDate.yearOf(null));
+    }
+
+    @Test
+    public void epochDaysSortLikeDates() {
+        // Неполная дата встаёт перед полными датами того же месяца / года
+        assertEquals(-1, Long.signum(ReleaseDate.toEpochDay("2011") - ReleaseDate.toEpochDay("2011-01-02")));
+        assertEquals(-1, Long.signum(ReleaseDate.toEpochDay("2011-05") - ReleaseDate.toEpochDay("2011-05-13")));
+        assertEquals(-1, Long.signum(ReleaseDate.toEpochDay("2010-12-31") - ReleaseDate.toEpochDay("2011")));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.spotify_kp.baselineprofile;
+
+import android.os.Bundle;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+/**
+ * Сценарии приложения для генератора профиля и бенчмарков:
+ * холодный старт до каталога, прокрутка сетки, экран деталей.
+ */
+final class AppJourneys {
+
+    static final String PACKAGE_NAME = "com.example.spotify_kp";
+
+    private static final long UI_TIMEOUT_MS = 10_000;
+
+    private AppJourneys() {
+    }
+
+    /**
+     * Старт со splash до первого кадра каталога (с логином, если сессии нет).
+     * Учётные данные: -Pandroid.testInstrumentationRunnerArguments.email=... / password=...
+     */
+    static void startToCatalog(MacrobenchmarkScope scope) {
+        scope.pressHome();
+        scope.startActivityAndWait();
+
+        UiDevice device = scope.getDevice();
+        if (device.wait(Until.hasObject(By.res(PACKAGE_NAME, "loginButton")), 3_000)) {
+            login(device);
+        }
+        device.wait(Until.hasObject(By.res(PACKAGE_NAME, "albumCover")), UI_TIMEOUT_MS);
+    }
+
+    /**
+     * Прокрутка каталога вниз и обратно (бинд AlbumAdapter, Glide, ViewHolder)
+     */
+    static void scrollCatalog(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 list = device.wait(Until.findObject(By.res(PACKAGE_NAME, "recyclerView")), UI_TIMEOUT_MS);
+        if (list == null) {
+            return;
+        }
+        // Отступ от краёв, чтобы жест не открыл шторку / навигацию
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        for (int i = 0; i < 3; i++) {
+            list.fling(Direction.DOWN);
+            device.waitForIdle();
+        }
+        list.fling(Direction.UP);
+        device.waitForIdle();
+    }
+
+    /**
+     * Открыть первый альбом и вернуться (Room по id, треки, детали)
+     */
+    static void openFirstAlbum(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 cover = device.wait(Until.findObject(By.res(PACKAGE_NAME, "albumCover")), UI_TIMEOUT_MS);
+        if (cover == null) {
+            return;
+        }
+        cover.click();
+        device.wait(Until.hasObject(By.res(PACKAGE_NAME, "tracksRecyclerView")), UI_TIMEOUT_MS);
+        device.pressBack();
+        device.waitForIdle();
+    }
+
+    private static void login(UiDevice device) {
+        Bundle args = InstrumentationRegistry.getArguments();
+        device.findObject(By.res(PACKAGE_NAME, "emailInput"))
+                .setText(args.getString("email", "benchmark@example.com"));
+        device.findObject(By.res(PACKAGE_NAME, "passwordInput"))
+                .setText(args.getString("password", "benchmark"));
+        device.findObject(By.res(PACKAGE_NAME, "loginButton")).click();
+        device.wait(Until.gone(By.res(PACKAGE_NAME, "loginButton")), UI_TIMEOUT_MS);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.spotify_kp.baselineprofile;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Снимает baseline profile: холодный старт, прокрутка каталога, экран деталей.
+ * ./gradlew :app:generateBaselineProfile - результат попадает в
+ * app/src/release/generated/baselineProfiles/baseline-prof.txt
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(AppJourneys.PACKAGE_NAME, scope -> {
+            AppJourneys.startToCatalog(scope);
+            AppJourneys.scrollCatalog(scope);
+            AppJourneys.openFirstAlbum(scope);
+            return Unit.INSTANCE;
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.spotify_kp.baselineprofile;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.Metric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Повторяемый замер холодного старта по фазам StartupTrace: каждая фаза -
+ * async-секция Perfetto, timeToFullDisplay - первый кадр каталога
+ * (reportFullyDrawn в CatalogFragment). min / median / max в отчёте бенчмарка.
+ * В отличие от буфера запусков на устройстве, здесь каждый запуск холодный
+ * и условия одинаковые.
+ * ./gradlew :baselineprofile:connectedBenchmarkReleaseAndroidTest
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 15;
+
+    // Имена фаз - StartupTrace.PHASE_* и StartupOrchestrator ("splash." + фаза)
+    private static final String[] PHASES = {
+            "application.onCreate",
+            "splash.database",
+            "splash.session",
+            "splash.catalog",
+            "splash.network",
+            "main.onCreate",
+            "main.setupHeader",
+            "main.loadUserProfile"
+    };
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void coldStartPhases() {
+        List<Metric> metrics = new ArrayList<>();
+        metrics.add(new StartupTimingMetric());
+        for (String phase : PHASES) {
+            metrics.add(new TraceSectionMetric(phase));
+        }
+
+        benchmarkRule.measureRepeated(
+                AppJourneys.PACKAGE_NAME,
+                metrics,
+                CompilationMode.DEFAULT,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    AppJourneys.startToCatalog(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}
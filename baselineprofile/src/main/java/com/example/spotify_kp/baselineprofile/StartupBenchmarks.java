@@ -0,0 +1,56 @@
+package com.example.spotify_kp.baselineprofile;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Холодный старт без AOT-компиляции и с baseline profile -
+ * timeToInitialDisplay / timeToFullDisplay (min / median / max) в отчёте бенчмарка.
+ * ./gradlew :baselineprofile:connectedBenchmarkReleaseAndroidTest
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class StartupBenchmarks {
+
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void startupWithoutCompilation() {
+        measureStartup(new CompilationMode.None());
+    }
+
+    @Test
+    public void startupWithBaselineProfile() {
+        // Require - тест упадёт, если профиль не установился
+        measureStartup(new CompilationMode.Partial(BaselineProfileMode.Require));
+    }
+
+    private void measureStartup(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(
+                AppJourneys.PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    AppJourneys.startToCatalog(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}